@@ -0,0 +1,98 @@
+package com.example.social.domain.repository;
+
+import com.example.social.domain.entity.ApiLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-batch row binding of {@code api_logs}: {@link ClickHouseLogRepository#bind} against a statement that
+ * discards its parameters, and {@link ClickHouseRowBinaryLogRepository#encode} into a reused buffer.
+ * The discarding statement is a dynamic proxy, so its argument boxing shows up in {@code gc.alloc.rate.norm};
+ * driver-side encoding is not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickHouseBindingBenchmark {
+
+    @Param("1000")
+    public int batchSize;
+
+    private List<ApiLog> logs;
+    private PreparedStatement statement;
+    private RowBinaryBuffer buffer;
+    private long parameters;
+
+    @Setup
+    public void setUp() {
+        logs = new ArrayList<>(batchSize);
+        String body = "{\"content\":\"" + "x".repeat(400) + "\"}";
+        for (int i = 0; i < batchSize; i++) {
+            logs.add(ApiLog.builder()
+                    .id(UUID.randomUUID().toString())
+                    .timestamp(Instant.now())
+                    .httpMethod("POST")
+                    .path("/api/posts/" + i + "/comments")
+                    .route("/api/posts/{id}/comments")
+                    .statusCode(200)
+                    .duration(i % 900)
+                    .requestHeader("{content-type=application/json, authorization=<redacted>}")
+                    .requestBody(body)
+                    .requestBodyLength(body.length())
+                    .responseHeader("{content-type=application/json}")
+                    .responseBody(body)
+                    .responseBodyLz4(body.getBytes(StandardCharsets.UTF_8))
+                    .responseBodyLength(body.length())
+                    .userId("user-" + i)
+                    .clientIp("10.0.0." + (i % 250))
+                    .userAgent("Mozilla/5.0 (X11; Linux x86_64)")
+                    .sampleWeight(1.0)
+                    .build());
+        }
+        statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    parameters++;
+                    return null;
+                });
+        buffer = new RowBinaryBuffer(1 << 20);
+    }
+
+    @Benchmark
+    public long jdbcBind() throws SQLException {
+        for (ApiLog log : logs) {
+            ClickHouseLogRepository.bind(statement, log);
+        }
+        return parameters;
+    }
+
+    @Benchmark
+    public int rowBinaryEncode() {
+        buffer.reset();
+        for (ApiLog log : logs) {
+            ClickHouseRowBinaryLogRepository.encode(buffer, log);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.social.etl;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.columnar.ColumnarRefiner;
+import com.example.social.etl.columnar.RefinementBatch;
+import com.example.social.etl.refine.RefinementRuleSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transform stage only, one batch per invocation: the original per-row refinement, the row-based
+ * {@link RefinementRuleSet} and the columnar {@link ColumnarRefiner}. Run with {@code -prof gc} to compare
+ * {@code gc.alloc.rate.norm}; see the {@code jmh} profile in the pom.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefinementBenchmark {
+
+    @Param("10000")
+    public int batchSize;
+
+    private final RefinementRuleSet rules = RefinementRuleSet.defaults();
+    private final ColumnarRefiner columnar = ColumnarRefiner.compile(rules).orElseThrow();
+
+    private List<ApiLog> logs;
+    private RefinementBatch batch;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        logs = new ArrayList<>(batchSize);
+        batch = new RefinementBatch(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ApiLog log = ApiLog.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()).toString())
+                    .userId(random.nextInt(20) == 0 ? "anonymous" : "user-" + random.nextInt(1_000_000))
+                    .duration(random.nextInt(1000))
+                    .build();
+            logs.add(log);
+            batch.add(log.getId(), log.getUserId(), log.getDuration());
+        }
+
+        List<ApiLogRefined> expected = rowRules();
+        List<ApiLogRefined> actual = columnar.refine(batch).toRefined();
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Columnar refinement differs from the row rules");
+        }
+    }
+
+    @Benchmark
+    public List<ApiLogRefined> legacyRows() {
+        List<ApiLogRefined> refinedList = new ArrayList<>(logs.size());
+        for (ApiLog log : logs) {
+            String userType = "BILINMIYOR";
+            try {
+                if (log.getUserId() != null && log.getUserId().contains("-")) {
+                    int idNum = Integer.parseInt(log.getUserId().split("-")[1]);
+                    userType = (idNum % 2 == 0) ? "CIFT" : "TEK";
+                }
+            } catch (Exception e) {}
+
+            String color;
+            long d = log.getDuration();
+            if (d < 200) color = "Green";
+            else if (d < 400) color = "Blue";
+            else if (d < 600) color = "Yellow";
+            else if (d < 800) color = "Orange";
+            else color = "Red";
+
+            refinedList.add(ApiLogRefined.builder()
+                    .id(UUID.randomUUID().toString())
+                    .originalLogId(log.getId())
+                    .userType(userType)
+                    .durationColor(color)
+                    .build());
+        }
+        return refinedList;
+    }
+
+    @Benchmark
+    public List<ApiLogRefined> rowRules() {
+        List<ApiLogRefined> refinedList = new ArrayList<>(logs.size());
+        for (ApiLog log : logs) {
+            refinedList.add(rules.refine(log));
+        }
+        return refinedList;
+    }
+
+    @Benchmark
+    public RefinementBatch columnar() {
+        return columnar.refine(batch);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.social.logging.capture;
+
+import com.example.social.config.AppProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The capture work {@code LogFilter} adds per request: teeing the request body while it is read,
+ * teeing the response body while it is written, then decoding both captured prefixes.
+ * Bodies larger than {@code app.logging.capture.max-bytes} exercise the truncation path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyCaptureBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    public int bodyBytes;
+
+    private CaptureBufferPool pool;
+    private int limit;
+    private byte[] body;
+    private byte[] readBuffer;
+
+    @Setup
+    public void setUp() {
+        AppProperties props = new AppProperties();
+        pool = new CaptureBufferPool(props);
+        limit = props.getLogging().getCapture().getMaxBytes();
+        body = new byte[bodyBytes];
+        Arrays.fill(body, (byte) 'a');
+        readBuffer = new byte[8192];
+    }
+
+    @Benchmark
+    public int requestCapture() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts/1/comments");
+        request.setContentType("application/json");
+        request.setContent(body);
+        CapturingRequestWrapper wrapper = new CapturingRequestWrapper(request, pool, limit);
+        try {
+            var in = wrapper.getInputStream();
+            while (in.read(readBuffer, 0, readBuffer.length) != -1) {
+                // drained like a message converter would
+            }
+            return wrapper.capturedBody().length();
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    @Benchmark
+    public int responseCapture() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("application/json");
+        CapturingResponseWrapper wrapper = new CapturingResponseWrapper(response, pool, limit, contentType -> false);
+        try {
+            wrapper.getOutputStream().write(body);
+            wrapper.flushCapture();
+            return wrapper.capturedBody().length();
+        } finally {
+            wrapper.release();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.social.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenUtils#sha256Hex} as used on every authenticated request: hashing the Base64URL bearer token.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenHashBenchmark {
+    private byte[] token;
+    private byte[] header;
+    private int tokenOffset;
+
+    @Setup
+    public void setUp() {
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(TokenUtils.randomBytes(32));
+        token = raw.getBytes(StandardCharsets.US_ASCII);
+        header = ("Bearer " + raw).getBytes(StandardCharsets.US_ASCII);
+        tokenOffset = "Bearer ".length();
+    }
+
+    @Benchmark
+    public String sha256Hex() {
+        return TokenUtils.sha256Hex(token);
+    }
+
+    @Benchmark
+    public String sha256HexSlice() {
+        return TokenUtils.sha256Hex(header, tokenOffset, header.length - tokenOffset);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.social.web.controller;
+
+import com.example.social.domain.Role;
+import com.example.social.domain.entity.Comment;
+import com.example.social.domain.entity.Post;
+import com.example.social.domain.entity.User;
+import com.example.social.web.dto.PostDTOs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code GET /api/posts} response path without the database: {@link PostController#toResponse}
+ * mapping and Jackson serialization of the resulting list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostResponseBenchmark {
+
+    @Param({"20", "200"})
+    public int posts;
+
+    @Param({"0", "10"})
+    public int commentsPerPost;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private List<Post> postList;
+    private List<User> authors;
+    private List<List<Comment>> comments;
+    private List<PostDTOs.PostResponse> responses;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.parse("2025-11-03T03:15:00Z");
+        postList = new ArrayList<>(posts);
+        authors = new ArrayList<>(posts);
+        comments = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            long authorId = i % 25;
+            postList.add(Post.builder().id((long) i).authorId(authorId)
+                    .imagePath("/uploads/" + i + ".jpg")
+                    .description("Post number " + i + " with a short caption")
+                    .likeCount(i * 3).viewCount(i * 11)
+                    .createdAt(now).updatedAt(now)
+                    .build());
+            authors.add(User.builder().id(authorId).username("user" + authorId).role(Role.USER).createdAt(now).build());
+            List<Comment> postComments = new ArrayList<>(commentsPerPost);
+            for (int c = 0; c < commentsPerPost; c++) {
+                postComments.add(Comment.builder().id((long) c).postId((long) i).authorId((long) c)
+                        .content("Comment " + c).createdAt(now).build());
+            }
+            comments.add(postComments);
+        }
+        responses = toResponses();
+    }
+
+    @Benchmark
+    public List<PostDTOs.PostResponse> toResponses() {
+        List<PostDTOs.PostResponse> result = new ArrayList<>(postList.size());
+        for (int i = 0; i < postList.size(); i++) {
+            result.add(PostController.toResponse(postList.get(i), authors.get(i), comments.get(i)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() {
+        return jsonMapper.writeValueAsBytes(toResponses());
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.social.bootstrap;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import com.example.social.config.AppProperties;
 import com.example.social.domain.Role;
 import com.example.social.domain.entity.User;
 import com.example.social.domain.repository.UserRepository;
+import com.example.social.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -16,13 +16,14 @@ import java.time.Instant;
 public class AdminSeeder implements CommandLineRunner {
     private final UserRepository users;
     private final AppProperties properties;
+    private final PasswordHasher passwordHasher;
 
 
     @Override
     public void run(String... args){
         String username = properties.getAdmin().getUsername();
         users.findUserByUsername(username).orElseGet(()->{
-            String hash = BCrypt.withDefaults().hashToString(12, properties.getAdmin().getPassword().toCharArray());
+            String hash = passwordHasher.hashNow(properties.getAdmin().getPassword());
             var admin = User.builder()
                     .username(username)
                     .passwordHash(hash)
@@ -0,0 +1,182 @@
+package com.example.social.bootstrap;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.repository.ClickHouseLogWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Flyway-style versioned migrations for ClickHouse. Applies {@code V<n>__<description>.sql}
+ * scripts from {@code app.clickhouse.migration.locations} in order and records them in
+ * {@code clickhouse_schema_history}. Scripts may use {@code ${name}} placeholders. Afterwards
+ * {@code api_logs} must hold every column the log writers insert.
+ */
+@Slf4j
+@Component
+public class ClickHouseMigrator {
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([a-z_]+)}");
+    private static final DateTimeFormatter CUTOFF_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties.ClickHouse.Migration config;
+    private final String database;
+
+    public ClickHouseMigrator(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate jdbcTemplate, AppProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = props.getClickhouse().getMigration();
+        this.database = props.getClickhouse().getDatabase();
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            applyPending();
+            verifyWriterColumns();
+        } catch (Exception e) {
+            if (config.isFailOnError()) {
+                throw new IllegalStateException("ClickHouse migration failed", e);
+            }
+            log.error("ClickHouse migration failed, continuing without it: {}", e.getMessage());
+        }
+    }
+
+    private void applyPending() throws IOException {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS %s.clickhouse_schema_history (
+                version UInt32,
+                description String,
+                checksum UInt32,
+                installed_at DateTime DEFAULT now()
+            ) ENGINE = MergeTree() ORDER BY version
+        """.formatted(database));
+
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM " + database + ".clickhouse_schema_history",
+                rs -> { applied.put(rs.getInt("version"), rs.getLong("checksum")); });
+
+        for (Script script : scripts(placeholders())) {
+            Long checksum = applied.get(script.version());
+            if (checksum != null) {
+                if (checksum != script.checksum()) {
+                    log.warn("ClickHouse migration V{} was changed after it was applied", script.version());
+                }
+                continue;
+            }
+
+            log.info("Applying ClickHouse migration V{} - {}", script.version(), script.description());
+            for (String statement : statements(script.sql())) {
+                jdbcTemplate.execute(statement);
+            }
+            jdbcTemplate.update("INSERT INTO " + database + ".clickhouse_schema_history (version, description, checksum) VALUES (?, ?, ?)",
+                    script.version(), script.description(), script.checksum());
+        }
+    }
+
+    /**
+     * The log writers bind every column of {@link ClickHouseLogWriter#API_LOG_COLUMNS}; a table missing one
+     * would reject each insert, so it is reported here instead.
+     */
+    private void verifyWriterColumns() {
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT name FROM system.columns WHERE database = ? AND table = 'api_logs'", String.class, database);
+        List<String> missing = ClickHouseLogWriter.API_LOG_COLUMNS.stream().filter(c -> !existing.contains(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException(database + ".api_logs lacks the columns " + missing
+                    + " the log writers insert; apply the migrations or add them by hand");
+        }
+    }
+
+    private List<Script> scripts(Map<String, String> placeholders) throws IOException {
+        List<Script> scripts = new ArrayList<>();
+        var resolver = new PathMatchingResourcePatternResolver();
+        for (Resource resource : resolver.getResources(config.getLocations() + "/V*__*.sql")) {
+            Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String raw = resource.getContentAsString(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(raw.getBytes(StandardCharsets.UTF_8));
+            scripts.add(new Script(Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    resolvePlaceholders(raw, placeholders),
+                    crc.getValue()));
+        }
+        scripts.sort(Comparator.comparingInt(Script::version));
+        for (int i = 1; i < scripts.size(); i++) {
+            if (scripts.get(i).version() == scripts.get(i - 1).version()) {
+                throw new IllegalStateException("Two ClickHouse migrations share version V" + scripts.get(i).version());
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * {@code migration_started_at} is one instant per run, shared by all scripts; a script that starts a
+     * materialized view and backfills what came before uses it as the single cutoff between the two.
+     */
+    private Map<String, String> placeholders() {
+        return Map.of(
+                "database", database,
+                "retention_days", String.valueOf(config.getRetentionDays()),
+                "rollup_retention_days", String.valueOf(config.getRollupRetentionDays()),
+                "migration_started_at", "toDateTime64('" + CUTOFF_FORMAT.format(Instant.now()) + "', 3, 'UTC')");
+    }
+
+    private static String resolvePlaceholders(String sql, Map<String, String> values) {
+        Matcher matcher = PLACEHOLDER.matcher(sql);
+        StringBuilder out = new StringBuilder();
+        while (matcher.find()) {
+            String value = values.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException("Unknown placeholder ${" + matcher.group(1) + "}, known: " + Set.copyOf(values.keySet()));
+            }
+            matcher.appendReplacement(out, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static List<String> statements(String sql) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            if (!line.strip().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.toString().split(";\\s*(\n|$)")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.strip());
+            }
+        }
+        return statements;
+    }
+
+    private record Script(int version, String description, String sql, long checksum) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.social.bootstrap;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.IndicesBlockOptions;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateRequest;
+import co.elastic.clients.json.JsonData;
+import com.example.social.config.AppProperties;
+import com.example.social.logging.sink.ApiLogIndices;
+import com.example.social.logging.sink.ElasticsearchTasks;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Installs the {@code api-logs} index template so every daily {@code api-logs-yyyy.MM.dd} index
+ * gets the compact mapping, shard/refresh settings and the read alias on creation.
+ * <p>
+ * A concrete {@code api-logs} index left by earlier versions blocks the alias, and with it the creation of
+ * every daily index. It is migrated on startup: write-blocked, reindexed into the daily indices by timestamp
+ * (with the alias left out of the template meanwhile), then swapped for the alias in one {@code _aliases} call.
+ * A failed migration fails startup, since the Elasticsearch sink could never write.
+ */
+@Slf4j
+@Component
+public class ElasticsearchTemplateInstaller {
+    private static final String TEMPLATE = "elasticsearch/api-logs-template.json";
+    private static final String ROUTE_BY_DAY = """
+            def ts = ctx._source.timestamp;
+            ctx._index = params.prefix + '-' + (ts instanceof String && ts.length() >= 10 ? ts.substring(0, 10).replace('-', '.') : params.fallback);
+            """;
+
+    private final ElasticsearchClient client;
+    private final ApiLogIndices indices;
+    private final AppProperties.Elasticsearch config;
+
+    public ElasticsearchTemplateInstaller(ElasticsearchClient client, ApiLogIndices indices, AppProperties props) {
+        this.client = client;
+        this.indices = indices;
+        this.config = props.getElasticsearch();
+    }
+
+    @PostConstruct
+    public void install() {
+        if (!config.isTemplateEnabled()) {
+            return;
+        }
+        String alias = indices.alias();
+        boolean legacy;
+        try {
+            legacy = client.indices().exists(e -> e.index(alias)).value() && !client.indices().existsAlias(a -> a.name(alias)).value();
+            putTemplate(!legacy);
+        } catch (Exception e) {
+            if (config.isFailOnError()) {
+                throw new IllegalStateException("Installing Elasticsearch index template failed", e);
+            }
+            log.error("Installing Elasticsearch index template failed, continuing without it: {}", e.getMessage());
+            return;
+        }
+        if (legacy) {
+            try {
+                migrateLegacyIndex(alias);
+            } catch (Exception e) {
+                throw new IllegalStateException("'" + alias + "' is a concrete index and migrating it into the daily "
+                        + alias + "-* indices failed; no API log can be indexed until it is gone", e);
+            }
+        }
+    }
+
+    private void migrateLegacyIndex(String alias) throws Exception {
+        log.info("Migrating the legacy '{}' index into the daily {}-* indices", alias, alias);
+        client.indices().addBlock(b -> b.index(alias).block(IndicesBlockOptions.Write));
+
+        String today = indices.indexFor(null);
+        String task = client.reindex(r -> r
+                .source(s -> s.index(alias))
+                .dest(d -> d.index(today))
+                .script(s -> s
+                        .source(src -> src.scriptString(ROUTE_BY_DAY))
+                        .lang("painless")
+                        .params("prefix", JsonData.of(alias))
+                        .params("fallback", JsonData.of(today.substring(alias.length() + 1))))
+                .waitForCompletion(false)).task();
+        var result = ElasticsearchTasks.awaitReindex(client, task, "Reindexing legacy '" + alias + "'");
+
+        if (!client.indices().exists(e -> e.index(today)).value()) {
+            client.indices().create(c -> c.index(today));
+        }
+        // deletes the legacy index and points the alias at the daily indices atomically
+        client.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(alias + "-*").alias(alias)))
+                .actions(a -> a.removeIndex(remove -> remove.index(alias))));
+        putTemplate(true);
+        // daily indices created between the swap and the template update
+        client.indices().updateAliases(u -> u.actions(a -> a.add(add -> add.index(alias + "-*").alias(alias))));
+
+        log.info("Migrated {} documents from the legacy '{}' index; '{}' is now an alias", result != null ? result.total() : 0, alias, alias);
+    }
+
+    private void putTemplate(boolean withAlias) throws Exception {
+        String json = new ClassPathResource(TEMPLATE).getContentAsString(StandardCharsets.UTF_8)
+                .replace("${aliases}", withAlias ? "{\"" + config.getIndexPrefix() + "\": {}}" : "{}")
+                .replace("${index_prefix}", config.getIndexPrefix())
+                .replace("${shards}", String.valueOf(config.getShards()))
+                .replace("${replicas}", String.valueOf(config.getReplicas()))
+                .replace("${refresh_interval}", config.getRefreshInterval());
+
+        client.indices().putIndexTemplate(PutIndexTemplateRequest.of(t -> t
+                .name(config.getIndexPrefix())
+                .withJson(new StringReader(json))));
+    }
+}
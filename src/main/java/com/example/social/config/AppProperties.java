@@ -1,22 +1,72 @@
 package com.example.social.config;
 
+import com.example.social.etl.ApiLogRefiner;
+import com.example.social.logging.OverflowPolicy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
     private Auth auth = new Auth();
     private Admin admin = new Admin();
+    private RateLimit rateLimit = new RateLimit();
+    private Logging logging = new Logging();
+    private ClickHouse clickhouse = new ClickHouse();
+    private Elasticsearch elasticsearch = new Elasticsearch();
+    private Etl etl = new Etl();
+    private Benchmark benchmark = new Benchmark();
 
     @Data
     public static class Auth{
         private Token token = new Token();
+        private Cache cache = new Cache();
+        private Password password = new Password();
 
         @Data
         public static class Token{
+            public enum Mode { OPAQUE, SIGNED }
+
+            private Mode mode = Mode.OPAQUE;
             private int ttlMinutes = 60;
             private int lengthBytes = 32;
+            private String signingKey = "";
+            private Revocation revocation = new Revocation();
+
+            @Data
+            public static class Revocation{
+                public enum Store { REDIS, MEMORY }
+
+                private Store store = Store.REDIS;
+                private String key = "auth:revocations";
+                private String channel = "auth:revocations";
+                private long rebuildIntervalMillis = 60_000;
+                private long expectedEntries = 100_000;
+                private double falsePositiveRate = 0.01;
+            }
+        }
+
+        @Data
+        public static class Password{
+            private int cost = 12;
+            private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            private int queueCapacity = 64;
+            private long timeoutMillis = 5000;
+        }
+
+        @Data
+        public static class Cache{
+            private boolean enabled = true;
+            private int maxEntries = 10_000;
+            private int ttlSeconds = 300;
+            private boolean broadcast = true;
+            private String channel = "auth:evict";
         }
     }
 
@@ -25,4 +75,219 @@ public class AppProperties {
         private String username = "admin";
         private String password = "admin";
     }
+
+    @Data
+    public static class RateLimit{
+        public enum Store { REDIS, MEMORY }
+
+        private Store store = Store.REDIS;
+        private int maxRequests = 10;
+        private int windowSeconds = 60;
+    }
+
+    @Data
+    public static class ClickHouse{
+        public enum InsertMode { JDBC, NATIVE }
+
+        private InsertMode insertMode = InsertMode.JDBC;
+        private String httpUrl = "http://localhost:8123";
+        private String database = "default";
+        private String username = "default";
+        private String password = "";
+        private boolean compress = true;
+        private int bufferSizeBytes = 1024 * 1024;
+        private int pooledBuffers = 8;
+        private long connectTimeoutMillis = 2000;
+        private long requestTimeoutMillis = 30000;
+        private Migration migration = new Migration();
+
+        @Data
+        public static class Migration{
+            private boolean enabled = true;
+            private boolean failOnError = false;
+            private String locations = "classpath:clickhouse/migration";
+            private int retentionDays = 30;
+            private int rollupRetentionDays = 395;
+        }
+    }
+
+    @Data
+    public static class Elasticsearch{
+        private String indexPrefix = "api-logs";
+        private boolean templateEnabled = true;
+        private boolean failOnError = false;
+        private int shards = 1;
+        private int replicas = 0;
+        private String refreshInterval = "30s";
+        private int retentionDays = 30;
+        private Bulk bulk = new Bulk();
+
+        @Data
+        public static class Bulk{
+            private int maxOperations = 5000;
+            private long maxSizeBytes = 10L * 1024 * 1024;
+            private int maxConcurrentRequests = 4;
+            private long flushIntervalMillis = 200;
+        }
+    }
+
+    @Data
+    public static class Etl{
+        private int batchSize = 10_000;
+        private int fetchSize = 10_000;
+        private int queueCapacity = 4;
+        private int transformThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        private int slices = 4;
+        private int pageSize = 5000;
+        private String pitKeepAlive = "2m";
+        private String checkpointDirectory = "etl-checkpoints";
+        private ApiLogRefiner.Mode refinementMode = ApiLogRefiner.Mode.PUSHDOWN;
+        private boolean columnar = true;
+        private Incremental incremental = new Incremental();
+
+        @Data
+        public static class Incremental{
+            private boolean enabled = false;
+            private List<String> targets = List.of("clickhouse", "elasticsearch");
+            private long intervalMillis = 60_000;
+            private long lagMillis = 60_000;
+            private long overlapMillis = 600_000;
+        }
+    }
+
+    @Data
+    public static class Benchmark{
+        private boolean enabled = false;
+        private List<String> phases = List.of("insert", "aggregate", "etl");
+        private long records = 1_000_000;
+        private List<Integer> batchSizes = List.of(10_000, 100_000);
+        private List<Integer> concurrency = List.of(1, 4);
+        private int warmupIterations = 1;
+        private int iterations = 5;
+        private int queriesPerIteration = 20;
+        private long seed = 42;
+        private String label = "";
+        private String outputDirectory = "benchmark-results";
+        private boolean exitOnFinish = true;
+        private Dataset dataset = new Dataset();
+        private Analytics analytics = new Analytics();
+
+        @Data
+        public static class Dataset{
+            private int users = 100_000;
+            private double zipfExponent = 1.1;
+            private double errorRate = 0.03;
+            private double latencySigma = 0.6;
+            private int spanHours = 24;
+            private double diurnalAmplitude = 0.6;
+            private int peakHourUtc = 18;
+        }
+
+        @Data
+        public static class Analytics{
+            private List<String> queries = new ArrayList<>();
+            private int windowHours = 24;
+            private int coldRuns = 3;
+            private int minBucketDocs = 100;
+            private int topUsers = 10;
+            private int minUserRequests = 20;
+            private boolean failOnMismatch = false;
+        }
+    }
+
+    @Data
+    public static class Logging{
+        private Pipeline pipeline = new Pipeline();
+        private Spool spool = new Spool();
+        private List<String> sinks = List.of("elasticsearch", "clickhouse");
+        private Map<String, Sink> sink = new HashMap<>();
+        private File file = new File();
+        private Memory memory = new Memory();
+        private Capture capture = new Capture();
+        private Sampling sampling = new Sampling();
+        private Compression compression = new Compression();
+
+        public Sink sinkSettings(String name) {
+            return sink.getOrDefault(name, new Sink());
+        }
+
+        @Data
+        public static class Pipeline{
+            private int capacity = 65536;
+            private int batchSize = 1000;
+            private long flushIntervalMillis = 1000;
+            private int workers = 1;
+            private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+            private long blockTimeoutMillis = 50;
+            private long shutdownTimeoutMillis = 10000;
+        }
+
+        @Data
+        public static class Spool{
+            private boolean enabled = true;
+            private String directory = "spool";
+            private int segmentSizeBytes = 64 * 1024 * 1024;
+            private int replayBatchSize = 1000;
+            private long replayRatePerSecond = 5000;
+            private long replayIntervalMillis = 1000;
+        }
+
+        @Data
+        public static class Sink{
+            // creates the sink bean; elasticsearch and clickhouse default to on, file and memory to off
+            private boolean enabled;
+            private int threads = 1;
+            private int queueCapacity = 64;
+            private int batchSize = 1000;
+            private long timeoutMillis = 5000;
+            private int failureThreshold = 5;
+            private long openMillis = 30000;
+        }
+
+        @Data
+        public static class File{
+            private String directory = "logs/api";
+            private long maxFileBytes = 128 * 1024 * 1024;
+        }
+
+        @Data
+        public static class Memory{
+            private int capacity = 10_000;
+        }
+
+        @Data
+        public static class Capture{
+            private boolean enabled = true;
+            private int maxBytes = 8192;
+            private int poolSize = 256;
+            private List<String> skipContentTypes = List.of(
+                    "multipart/", "image/", "video/", "audio/",
+                    "application/octet-stream", "application/pdf", "application/zip");
+            private List<Rule> rules = new ArrayList<>();
+
+            @Data
+            public static class Rule{
+                private String pattern;
+                private int maxBytes = -1;
+                private boolean request = true;
+                private boolean response = true;
+            }
+        }
+
+        @Data
+        public static class Sampling{
+            private boolean enabled = false;
+            private double rate = 1.0;
+            private double minRate = 0.01;
+            private double adaptiveTargetPerSecond = 0;
+            private long slowThresholdMillis = 1000;
+            private Map<String, Long> slowThresholdMillisByRoute = new LinkedHashMap<>();
+        }
+
+        @Data
+        public static class Compression{
+            private boolean enabled = false;
+            private int thresholdBytes = 1024;
+        }
+    }
 }
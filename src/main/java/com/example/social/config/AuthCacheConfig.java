@@ -0,0 +1,27 @@
+package com.example.social.config;
+
+import com.example.social.security.AuthenticationCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/** Subscribes {@link AuthenticationCache} to the evictions published by every node. */
+@Configuration
+@ConditionalOnProperty(prefix = "app.auth.cache", name = "broadcast", havingValue = "true", matchIfMissing = true)
+public class AuthCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer authCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    AuthenticationCache cache, AppProperties props) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> cache.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(props.getAuth().getCache().getChannel()));
+        return container;
+    }
+}
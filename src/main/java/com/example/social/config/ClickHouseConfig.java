@@ -0,0 +1,25 @@
+package com.example.social.config;
+
+import com.example.social.domain.repository.ClickHouseLogRepository;
+import com.example.social.domain.repository.ClickHouseLogWriter;
+import com.example.social.domain.repository.ClickHouseRowBinaryLogRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class ClickHouseConfig {
+
+    @Primary
+    @DependsOn("clickHouseMigrator")
+    @Bean(name = "clickHouseLogWriter")
+    public ClickHouseLogWriter clickHouseLogWriter(AppProperties props,
+                                                   ClickHouseLogRepository jdbcRepository,
+                                                   ClickHouseRowBinaryLogRepository nativeRepository) {
+        return switch (props.getClickhouse().getInsertMode()) {
+            case JDBC -> jdbcRepository;
+            case NATIVE -> nativeRepository;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.social.config;
+
+import com.example.social.service.InMemoryRateLimitService;
+import com.example.social.service.RateLimitService;
+import com.example.social.service.RedisRateLimitService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitService rateLimitService(AppProperties props, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return switch (props.getRateLimit().getStore()) {
+            case REDIS -> new RedisRateLimitService(redisTemplate.getObject(), props.getRateLimit());
+            case MEMORY -> new InMemoryRateLimitService(props.getRateLimit());
+        };
+    }
+}
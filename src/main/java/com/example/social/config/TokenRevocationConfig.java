@@ -0,0 +1,41 @@
+package com.example.social.config;
+
+import com.example.social.security.InMemoryRevocationStore;
+import com.example.social.security.RedisRevocationStore;
+import com.example.social.security.RevocationStore;
+import com.example.social.security.TokenRevocations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    public RevocationStore revocationStore(AppProperties props, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        AppProperties.Auth.Token.Revocation config = props.getAuth().getToken().getRevocation();
+        return switch (config.getStore()) {
+            case REDIS -> new RedisRevocationStore(redisTemplate.getObject(), config.getKey());
+            case MEMORY -> new InMemoryRevocationStore();
+        };
+    }
+
+    /** Delivers revocations made on any node to {@link TokenRevocations} right away instead of at the next rebuild. */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.auth.token.revocation", name = "store", havingValue = "REDIS", matchIfMissing = true)
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         TokenRevocations revocations, AppProperties props) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> revocations.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(props.getAuth().getToken().getRevocation().getChannel()));
+        return container;
+    }
+}
@@ -16,7 +16,7 @@ import java.time.Instant;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "api-logs")
+@Document(indexName = "api-logs", createIndex = false)
 public class ApiLog {
     @Id
     private String id;
@@ -30,32 +30,57 @@ public class ApiLog {
     @Field(type = FieldType.Keyword)
     private String path;
 
+    @Field(type = FieldType.Keyword)
+    private String route;
+
     @Field(type = FieldType.Integer)
     private int statusCode;
 
     @Field(type = FieldType.Long)
     private long duration;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Keyword)
     private String requestHeader;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Text, index = false)
     private String requestBody;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Binary)
+    private byte[] requestBodyLz4;
+
+    @Field(type = FieldType.Long)
+    private long requestBodyLength;
+
+    @Field(type = FieldType.Boolean)
+    private boolean requestBodyTruncated;
+
+    @Field(type = FieldType.Keyword)
     private String responseHeader;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Text, index = false)
     private String responseBody;
 
+    @Field(type = FieldType.Binary)
+    private byte[] responseBodyLz4;
+
+    @Field(type = FieldType.Long)
+    private long responseBodyLength;
+
+    @Field(type = FieldType.Boolean)
+    private boolean responseBodyTruncated;
+
     @Field(type = FieldType.Keyword)
     private String userId;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Ip)
     private String clientIp;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Keyword)
     private String userAgent;
+
+    @Builder.Default
+    @Field(type = FieldType.Double)
+    private double sampleWeight = 1.0;
 }
 
 
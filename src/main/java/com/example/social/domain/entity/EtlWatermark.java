@@ -0,0 +1,32 @@
+package com.example.social.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * High-watermark of an incremental ETL job: every source row with {@code timestamp} below
+ * {@link #watermark} has been refined.
+ */
+@Entity
+@Table(name = "etl_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtlWatermark {
+    @Id
+    @Column(length = 64)
+    private String job;
+
+    @Column(nullable = false)
+    private Instant watermark;
+
+    @Column(nullable = false)
+    private long lastRunRows;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
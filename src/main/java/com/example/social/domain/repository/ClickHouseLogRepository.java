@@ -1,83 +1,76 @@
 package com.example.social.domain.repository;
 
+import com.example.social.config.AppProperties;
 import com.example.social.domain.entity.ApiLog;
 import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.columnar.RefinementBatch;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Repository
-public class ClickHouseLogRepository {
-
+public class ClickHouseLogRepository implements ClickHouseLogWriter {
     private final JdbcTemplate jdbcTemplate;
+    private final String database;
+    private final String insertApiLog;
 
-    public ClickHouseLogRepository(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate jdbcTemplate) {
+    public ClickHouseLogRepository(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate jdbcTemplate, AppProperties props) {
         this.jdbcTemplate = jdbcTemplate;
+        this.database = props.getClickhouse().getDatabase();
+        this.insertApiLog = "INSERT INTO " + database + ".api_logs ("
+                + API_LOG_COLUMNS.stream().map(c -> "`" + c + "`").collect(Collectors.joining(", "))
+                + ") VALUES (" + String.join(", ", Collections.nCopies(API_LOG_COLUMNS.size(), "?")) + ")";
     }
 
     public void save(ApiLog log) {
-        String sql = """
-            INSERT INTO api_logs (
-                id, `timestamp`, httpMethod, `path`, statusCode, duration, 
-                requestHeader, requestBody, responseHeader, responseBody, 
-                userId, clientIp, userAgent
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-
         String logId = (log.getId() != null) ? log.getId() : UUID.randomUUID().toString();
 
-        jdbcTemplate.update(sql,
+        jdbcTemplate.update(insertApiLog,
                 logId,
                 Timestamp.from(log.getTimestamp()),
                 log.getHttpMethod(),
                 log.getPath(),
+                log.getRoute(),
                 log.getStatusCode(),
                 log.getDuration(),
                 log.getRequestHeader(),
                 log.getRequestBody(),
+                log.getRequestBodyLz4(),
+                log.getRequestBodyLength(),
+                log.isRequestBodyTruncated(),
                 log.getResponseHeader(),
                 log.getResponseBody(),
+                log.getResponseBodyLz4(),
+                log.getResponseBodyLength(),
+                log.isResponseBodyTruncated(),
                 log.getUserId(),
                 log.getClientIp(),
-                log.getUserAgent()
+                log.getUserAgent(),
+                log.getSampleWeight()
         );
     }
 
+    @Override
     public void saveAll(List<ApiLog> logs) {
-        String sql = """
-            INSERT INTO api_logs (
-                id, `timestamp`, httpMethod, `path`, statusCode, duration, 
-                requestHeader, requestBody, responseHeader, responseBody, 
-                userId, clientIp, userAgent
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+        jdbcTemplate.batchUpdate(insertApiLog, new BatchPreparedStatementSetter() {
             @Override
             public void setValues(PreparedStatement ps, int i) throws SQLException {
-                ApiLog log = logs.get(i);
-                String logId = (log.getId() != null) ? log.getId() : UUID.randomUUID().toString();
-
-                ps.setObject(1, logId);
-                ps.setTimestamp(2, Timestamp.from(log.getTimestamp()));
-                ps.setString(3, log.getHttpMethod());
-                ps.setString(4, log.getPath());
-                ps.setInt(5, log.getStatusCode());
-                ps.setLong(6, log.getDuration());
-                ps.setString(7, log.getRequestHeader());
-                ps.setString(8, log.getRequestBody());
-                ps.setString(9, log.getResponseHeader());
-                ps.setString(10, log.getResponseBody());
-                ps.setString(11, log.getUserId());
-                ps.setString(12, log.getClientIp());
-                ps.setString(13, log.getUserAgent());
+                bind(ps, logs.get(i));
             }
 
             @Override
@@ -87,34 +80,96 @@ public class ClickHouseLogRepository {
         });
     }
 
-    public void createRefinedTable() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS default.api_logs_refined (
-                id String,
-                originalLogId String,
-                userType String,
-                durationColor String
-            ) ENGINE = MergeTree() ORDER BY id
-        """;
-        jdbcTemplate.execute(sql);
+    static void bind(PreparedStatement ps, ApiLog log) throws SQLException {
+        String logId = (log.getId() != null) ? log.getId() : UUID.randomUUID().toString();
+
+        ps.setObject(1, logId);
+        ps.setTimestamp(2, Timestamp.from(log.getTimestamp()));
+        ps.setString(3, log.getHttpMethod());
+        ps.setString(4, log.getPath());
+        ps.setString(5, log.getRoute());
+        ps.setInt(6, log.getStatusCode());
+        ps.setLong(7, log.getDuration());
+        ps.setString(8, log.getRequestHeader());
+        ps.setString(9, log.getRequestBody());
+        ps.setBytes(10, log.getRequestBodyLz4());
+        ps.setLong(11, log.getRequestBodyLength());
+        ps.setBoolean(12, log.isRequestBodyTruncated());
+        ps.setString(13, log.getResponseHeader());
+        ps.setString(14, log.getResponseBody());
+        ps.setBytes(15, log.getResponseBodyLz4());
+        ps.setLong(16, log.getResponseBodyLength());
+        ps.setBoolean(17, log.isResponseBodyTruncated());
+        ps.setString(18, log.getUserId());
+        ps.setString(19, log.getClientIp());
+        ps.setString(20, log.getUserAgent());
+        ps.setDouble(21, log.getSampleWeight());
     }
 
-    public java.util.List<ApiLog> findAll() {
-        String sql = "SELECT * FROM default.api_logs";
+    /**
+     * Forward-only cursor over {@code api_logs} reading just the columns refinement needs;
+     * rows are handed to {@code rows} as they arrive instead of being collected first.
+     */
+    public void streamForRefinement(int fetchSize, Consumer<? super ApiLog> rows) {
+        streamForRefinement(fetchSize, null, null, rows);
+    }
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> ApiLog.builder()
-                .id(rs.getString("id"))
-                .userId(rs.getString("userId"))
-                .duration(rs.getLong("duration"))
-                .build()
-        );
+    /** Same as {@link #streamForRefinement(int, Consumer)} restricted to {@code from <= timestamp < to}; null bounds are open. */
+    public void streamForRefinement(int fetchSize, Instant from, Instant to, Consumer<? super ApiLog> rows) {
+        queryRefinementColumns(fetchSize, from, to, rs -> rows.accept(ApiLog.builder()
+                .id(rs.getString(1))
+                .userId(rs.getString(2))
+                .duration(rs.getLong(3))
+                .build()));
+    }
+
+    /**
+     * Columnar variant: rows are appended straight into batches from {@code nextBatch},
+     * and each full batch (and the last partial one) is handed to {@code batches}.
+     */
+    public void streamBatchesForRefinement(int fetchSize, Instant from, Instant to,
+                                           Supplier<RefinementBatch> nextBatch, Consumer<RefinementBatch> batches) {
+        RefinementBatch[] current = {nextBatch.get()};
+        queryRefinementColumns(fetchSize, from, to, rs -> {
+            current[0].add(rs.getString(1), rs.getString(2), rs.getLong(3));
+            if (current[0].isFull()) {
+                batches.accept(current[0]);
+                current[0] = nextBatch.get();
+            }
+        });
+        if (current[0].size() > 0) {
+            batches.accept(current[0]);
+        }
+    }
+
+    private void queryRefinementColumns(int fetchSize, Instant from, Instant to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT id, userId, duration FROM " + database + ".api_logs");
+        List<Object> args = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" WHERE `timestamp` >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(args.isEmpty() ? " WHERE" : " AND").append(" `timestamp` < ?");
+            args.add(Timestamp.from(to));
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
     }
 
+    @Override
     public void saveRefinedAll(java.util.List<ApiLogRefined> logs) {
         String sql = """
-            INSERT INTO default.api_logs_refined (id, originalLogId, userType, durationColor)
+            INSERT INTO %s.api_logs_refined (id, originalLogId, userType, durationColor)
             VALUES (?, ?, ?, ?)
-        """;
+        """.formatted(database);
 
         jdbcTemplate.batchUpdate(sql, new org.springframework.jdbc.core.BatchPreparedStatementSetter() {
             @Override
@@ -132,25 +187,4 @@ public class ClickHouseLogRepository {
             }
         });
     }
-
-    public void runAggregationBenchmark() {
-        String sql = """
-            SELECT 
-                httpMethod, 
-                count(*) as count, 
-                avg(duration) as avgDuration 
-            FROM default.api_logs 
-            GROUP BY httpMethod
-        """;
-
-        jdbcTemplate.query(sql, (rs) -> {
-            while(rs.next()) {
-                rs.getString("httpMethod");
-                rs.getLong("count");
-                rs.getDouble("avgDuration");
-            }
-            return null;
-        });
-    }
-
-}
\ No newline at end of file
+}
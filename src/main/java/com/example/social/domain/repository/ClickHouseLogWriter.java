@@ -0,0 +1,32 @@
+package com.example.social.domain.repository;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.columnar.RefinementBatch;
+
+import java.util.List;
+
+/**
+ * Bulk write path into ClickHouse. {@code app.clickhouse.insert-mode} picks the
+ * JDBC ({@link ClickHouseLogRepository}) or RowBinary ({@link ClickHouseRowBinaryLogRepository}) implementation.
+ */
+public interface ClickHouseLogWriter {
+    /**
+     * {@code api_logs} columns both implementations write, in bind order. The migrator checks the table has
+     * every one of them, so a table the migrations could not upgrade fails startup instead of every insert.
+     */
+    List<String> API_LOG_COLUMNS = List.of(
+            "id", "timestamp", "httpMethod", "path", "route", "statusCode", "duration",
+            "requestHeader", "requestBody", "requestBodyLz4", "requestBodyLength", "requestBodyTruncated",
+            "responseHeader", "responseBody", "responseBodyLz4", "responseBodyLength", "responseBodyTruncated",
+            "userId", "clientIp", "userAgent", "sampleWeight");
+
+    void saveAll(List<ApiLog> logs);
+
+    void saveRefinedAll(List<ApiLogRefined> logs);
+
+    /** Columnar variant; implementations that can encode the batch directly should override it. */
+    default void saveRefinedBatch(RefinementBatch batch) {
+        saveRefinedAll(batch.toRefined());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.social.domain.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the per-route latency rollups maintained by the {@code api_logs_route_1m} / {@code _1h}
+ * materialized views instead of scanning {@code api_logs}. Counts and percentiles are sample-weighted; the
+ * percentiles are t-digest estimates.
+ */
+@Repository
+public class ClickHouseRouteStatsRepository {
+
+    public enum Granularity {
+        MINUTE("api_logs_route_1m"),
+        HOUR("api_logs_route_1h");
+
+        private final String table;
+
+        Granularity(String table) {
+            this.table = table;
+        }
+    }
+
+    public record RouteLatency(Instant bucket,
+                               String httpMethod,
+                               String route,
+                               double requests,
+                               double errors,
+                               double p50,
+                               double p95,
+                               double p99) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickHouseRouteStatsRepository(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** One row per bucket, method and route in {@code [from, to)}; {@code route} narrows to a single route when non-null. */
+    public List<RouteLatency> findLatencyByRoute(Granularity granularity, Instant from, Instant to, String route) {
+        List<Object> args = new ArrayList<>(List.of(Timestamp.from(from), Timestamp.from(to)));
+        String routeFilter = "";
+        if (route != null) {
+            routeFilter = " AND route = ?";
+            args.add(route);
+        }
+
+        String sql = """
+            SELECT bucket, httpMethod, route,
+                   sum(requests) AS requests,
+                   sum(errors) AS errors,
+                   quantilesTDigestWeightedMerge(0.5, 0.95, 0.99)(duration_quantiles) AS q,
+                   q[1] AS p50, q[2] AS p95, q[3] AS p99
+            FROM %s
+            WHERE bucket >= ? AND bucket < ?%s
+            GROUP BY bucket, httpMethod, route
+            ORDER BY bucket, route, httpMethod
+        """.formatted(granularity.table, routeFilter);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RouteLatency(
+                rs.getTimestamp("bucket").toInstant(),
+                rs.getString("httpMethod"),
+                rs.getString("route"),
+                rs.getDouble("requests"),
+                rs.getDouble("errors"),
+                rs.getDouble("p50"),
+                rs.getDouble("p95"),
+                rs.getDouble("p99")
+        ), args.toArray());
+    }
+
+    /** Whole-window totals per method and route, slowest p99 first. */
+    public List<RouteLatency> findTopRoutes(Granularity granularity, Instant from, Instant to, int limit) {
+        String sql = """
+            SELECT httpMethod, route,
+                   sum(requests) AS requests,
+                   sum(errors) AS errors,
+                   quantilesTDigestWeightedMerge(0.5, 0.95, 0.99)(duration_quantiles) AS q,
+                   q[1] AS p50, q[2] AS p95, q[3] AS p99
+            FROM %s
+            WHERE bucket >= ? AND bucket < ?
+            GROUP BY httpMethod, route
+            ORDER BY p99 DESC
+            LIMIT ?
+        """.formatted(granularity.table);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RouteLatency(
+                from,
+                rs.getString("httpMethod"),
+                rs.getString("route"),
+                rs.getDouble("requests"),
+                rs.getDouble("errors"),
+                rs.getDouble("p50"),
+                rs.getDouble("p95"),
+                rs.getDouble("p99")
+        ), Timestamp.from(from), Timestamp.from(to), limit);
+    }
+}
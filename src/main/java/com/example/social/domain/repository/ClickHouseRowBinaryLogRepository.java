@@ -0,0 +1,185 @@
+package com.example.social.domain.repository;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.columnar.RefinementBatch;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Streams rows straight into ClickHouse's HTTP interface as {@code FORMAT RowBinary},
+ * optionally LZ4-framed ({@code Content-Encoding: lz4}). Row encoding reuses pooled buffers.
+ * Column order and types must match the managed {@code api_logs} / {@code api_logs_refined} schema.
+ */
+@Repository
+public class ClickHouseRowBinaryLogRepository implements ClickHouseLogWriter {
+    private static final String REFINED_COLUMNS = "id, originalLogId, userType, durationColor";
+
+    private final AppProperties.ClickHouse config;
+    private final HttpClient httpClient;
+    private final ConcurrentLinkedQueue<RowBinaryBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final String apiLogInsertUri;
+    private final String refinedInsertUri;
+
+    public ClickHouseRowBinaryLogRepository(AppProperties props) {
+        this.config = props.getClickhouse();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .build();
+        this.apiLogInsertUri = insertUri("api_logs", String.join(", ", API_LOG_COLUMNS));
+        this.refinedInsertUri = insertUri("api_logs_refined", REFINED_COLUMNS);
+    }
+
+    @Override
+    public void saveAll(List<ApiLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        RowBinaryBuffer rows = acquire();
+        try {
+            for (ApiLog log : logs) {
+                encode(rows, log);
+            }
+            post(apiLogInsertUri, rows);
+        } finally {
+            release(rows);
+        }
+    }
+
+    @Override
+    public void saveRefinedAll(List<ApiLogRefined> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        RowBinaryBuffer rows = acquire();
+        try {
+            for (ApiLogRefined log : logs) {
+                rows.putString(log.getId())
+                        .putString(log.getOriginalLogId())
+                        .putString(log.getUserType())
+                        .putString(log.getDurationColor());
+            }
+            post(refinedInsertUri, rows);
+        } finally {
+            release(rows);
+        }
+    }
+
+    static void encode(RowBinaryBuffer rows, ApiLog log) {
+        rows.putString(log.getId() != null ? log.getId() : UUID.randomUUID().toString())
+                .putInt64(log.getTimestamp().toEpochMilli())
+                .putString(log.getHttpMethod())
+                .putString(log.getPath())
+                .putString(log.getRoute())
+                .putUInt16(log.getStatusCode())
+                .putInt64(log.getDuration())
+                .putString(log.getRequestHeader())
+                .putString(log.getRequestBody())
+                .putBytes(log.getRequestBodyLz4())
+                .putInt64(log.getRequestBodyLength())
+                .putBool(log.isRequestBodyTruncated())
+                .putString(log.getResponseHeader())
+                .putString(log.getResponseBody())
+                .putBytes(log.getResponseBodyLz4())
+                .putInt64(log.getResponseBodyLength())
+                .putBool(log.isResponseBodyTruncated())
+                .putString(log.getUserId())
+                .putString(log.getClientIp())
+                .putString(log.getUserAgent())
+                .putFloat64(log.getSampleWeight());
+    }
+
+    /** Copies the batch columns into the RowBinary buffer without materialising rows. */
+    @Override
+    public void saveRefinedBatch(RefinementBatch batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        RowBinaryBuffer rows = acquire();
+        try {
+            byte[] refinedIds = batch.refinedIds();
+            byte[] ids = batch.idBytes();
+            for (int row = 0; row < batch.size(); row++) {
+                byte[] userType = batch.userTypeLabel(row);
+                byte[] durationColor = batch.durationColorLabel(row);
+                rows.putString(refinedIds, batch.refinedIdOffset(row), RefinementBatch.REFINED_ID_LENGTH)
+                        .putString(ids, batch.idOffset(row), batch.idLength(row))
+                        .putString(userType, 0, userType.length)
+                        .putString(durationColor, 0, durationColor.length);
+            }
+            post(refinedInsertUri, rows);
+        } finally {
+            release(rows);
+        }
+    }
+
+    private void post(String uri, RowBinaryBuffer rows) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofMillis(config.getRequestTimeoutMillis()))
+                .header("X-ClickHouse-User", config.getUsername())
+                .header("X-ClickHouse-Key", config.getPassword())
+                .header("Content-Type", "application/octet-stream");
+
+        RowBinaryBuffer compressed = null;
+        try {
+            if (config.isCompress()) {
+                compressed = acquire();
+                try (LZ4FrameOutputStream lz4 = new LZ4FrameOutputStream(compressed)) {
+                    lz4.write(rows.array(), 0, rows.size());
+                }
+                request.header("Content-Encoding", "lz4")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(compressed.array(), 0, compressed.size()));
+            } else {
+                request.POST(HttpRequest.BodyPublishers.ofByteArray(rows.array(), 0, rows.size()));
+            }
+
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("ClickHouse insert failed (" + response.statusCode() + "): " + response.body());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("ClickHouse insert failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ClickHouse insert interrupted", e);
+        } finally {
+            if (compressed != null) {
+                release(compressed);
+            }
+        }
+    }
+
+    private String insertUri(String table, String columns) {
+        String query = "INSERT INTO " + config.getDatabase() + "." + table + " (" + columns + ") FORMAT RowBinary";
+        return config.getHttpUrl() + "/?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8);
+    }
+
+    private RowBinaryBuffer acquire() {
+        RowBinaryBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return new RowBinaryBuffer(config.getBufferSizeBytes());
+        }
+        buffer.reset();
+        return buffer;
+    }
+
+    private void release(RowBinaryBuffer buffer) {
+        if (buffers.size() < config.getPooledBuffers()) {
+            buffers.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.social.domain.repository;
+
+import com.example.social.domain.entity.ApiLogRefined;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One bulk request per batch and no refresh, unlike {@link ApiLogRefinedRepository#saveAll},
+ * which refreshes the index on every call. Refined ids are deterministic, so re-indexing overwrites.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ElasticsearchRefinedLogRepository {
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public void saveAll(List<ApiLogRefined> refined) {
+        List<IndexQuery> queries = new ArrayList<>(refined.size());
+        for (ApiLogRefined log : refined) {
+            queries.add(new IndexQueryBuilder().withId(log.getId()).withObject(log).build());
+        }
+        elasticsearchOperations.bulkIndex(queries, ApiLogRefined.class);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.social.domain.repository;
+
+import com.example.social.domain.entity.EtlWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EtlWatermarkRepository extends JpaRepository<EtlWatermark, String> {
+}
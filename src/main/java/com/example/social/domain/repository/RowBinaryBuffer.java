@@ -0,0 +1,164 @@
+package com.example.social.domain.repository;
+
+import java.io.OutputStream;
+
+/**
+ * Growable little-endian buffer in ClickHouse RowBinary encoding.
+ * Strings are UTF-8 encoded in place, so writing a row allocates nothing.
+ */
+final class RowBinaryBuffer extends OutputStream {
+    private byte[] data;
+    private int size;
+
+    RowBinaryBuffer(int initialCapacity) {
+        this.data = new byte[initialCapacity];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    byte[] array() {
+        return data;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void write(int b) {
+        ensure(1);
+        data[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensure(len);
+        System.arraycopy(b, off, data, size, len);
+        size += len;
+    }
+
+    RowBinaryBuffer putUInt8(int value) {
+        write(value);
+        return this;
+    }
+
+    RowBinaryBuffer putBool(boolean value) {
+        return putUInt8(value ? 1 : 0);
+    }
+
+    RowBinaryBuffer putUInt16(int value) {
+        ensure(2);
+        data[size++] = (byte) value;
+        data[size++] = (byte) (value >>> 8);
+        return this;
+    }
+
+    RowBinaryBuffer putInt64(long value) {
+        ensure(8);
+        for (int i = 0; i < 8; i++) {
+            data[size++] = (byte) (value >>> (8 * i));
+        }
+        return this;
+    }
+
+    RowBinaryBuffer putFloat64(double value) {
+        return putInt64(Double.doubleToRawLongBits(value));
+    }
+
+    RowBinaryBuffer putVarUInt(long value) {
+        while ((value & ~0x7FL) != 0) {
+            write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        write((int) value);
+        return this;
+    }
+
+    RowBinaryBuffer putBytes(byte[] value) {
+        if (value == null) {
+            return putVarUInt(0);
+        }
+        putVarUInt(value.length);
+        write(value, 0, value.length);
+        return this;
+    }
+
+    /** String column from already UTF-8 encoded bytes. */
+    RowBinaryBuffer putString(byte[] utf8, int off, int len) {
+        putVarUInt(len);
+        write(utf8, off, len);
+        return this;
+    }
+
+    /**
+     * Non-nullable String column; null is written as the empty string.
+     */
+    RowBinaryBuffer putString(String value) {
+        if (value == null || value.isEmpty()) {
+            return putVarUInt(0);
+        }
+        int length = value.length();
+        int encoded = utf8Length(value);
+        putVarUInt(encoded);
+        ensure(encoded);
+        if (encoded == length) {
+            // one byte per char: ASCII, or a lone surrogate written as '?'
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                data[size++] = c < 0x80 ? (byte) c : (byte) '?';
+            }
+            return this;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                data[size++] = (byte) c;
+            } else if (c < 0x800) {
+                data[size++] = (byte) (0xC0 | (c >> 6));
+                data[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                data[size++] = (byte) (0xF0 | (cp >> 18));
+                data[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                data[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                data[size++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                data[size++] = (byte) '?';
+            } else {
+                data[size++] = (byte) (0xE0 | (c >> 12));
+                data[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                data[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            } else if (c >= 0x80) {
+                bytes += 1;
+            }
+        }
+        return bytes;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > data.length) {
+            byte[] grown = new byte[Math.max(data.length * 2, size + extra)];
+            System.arraycopy(data, 0, grown, 0, size);
+            data = grown;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.social.etl;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.columnar.ColumnarRefiner;
+import com.example.social.etl.refine.RefinementRuleSet;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns raw {@link ApiLog}s into {@link ApiLogRefined}s with the configured {@link RefinementRuleSet}.
+ * {@code app.etl.refinement-mode} decides whether runs push the rules down to the storage engine
+ * (PUSHDOWN) or stream the rows through the application (JVM, columnar when {@code app.etl.columnar} is on).
+ * The refined id is derived from {@code originalLogId}, so refining the same log twice yields the same row.
+ */
+@Component
+public class ApiLogRefiner {
+    /** Source fields the default rules read besides the id. */
+    public static final List<String> SOURCE_FIELDS = List.of("userId", "duration");
+
+    public enum Mode { JVM, PUSHDOWN }
+
+    /** Projection of an Elasticsearch {@code _source} restricted to {@link #SOURCE_FIELDS}. */
+    public record Source(String userId, long duration) {
+        public ApiLog toApiLog(String id) {
+            return ApiLog.builder().id(id).userId(userId).duration(duration).build();
+        }
+    }
+
+    private final RefinementRuleSet rules = RefinementRuleSet.defaults();
+    private final Mode mode;
+    private final Optional<ColumnarRefiner> columnar;
+
+    public ApiLogRefiner(AppProperties props) {
+        this.mode = props.getEtl().getRefinementMode();
+        this.columnar = props.getEtl().isColumnar() ? ColumnarRefiner.compile(rules) : Optional.empty();
+    }
+
+    public RefinementRuleSet rules() {
+        return rules;
+    }
+
+    /** Batch-at-a-time form of the rules, when they compile to one and {@code app.etl.columnar} is on. */
+    public Optional<ColumnarRefiner> columnar() {
+        return columnar;
+    }
+
+    public boolean pushdown() {
+        return mode == Mode.PUSHDOWN;
+    }
+
+    public List<ApiLogRefined> refine(List<ApiLog> rawLogs) {
+        List<ApiLogRefined> refinedList = new ArrayList<>(rawLogs.size());
+        for (ApiLog log : rawLogs) {
+            refinedList.add(rules.refine(log));
+        }
+        return refinedList;
+    }
+}
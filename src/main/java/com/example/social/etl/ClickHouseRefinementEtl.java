@@ -0,0 +1,57 @@
+package com.example.social.etl;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.domain.repository.ClickHouseLogRepository;
+import com.example.social.domain.repository.ClickHouseLogWriter;
+import com.example.social.etl.columnar.ColumnarRefiner;
+import com.example.social.etl.columnar.RefinementBatch;
+import com.example.social.etl.columnar.RefinementBatchPool;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * In-JVM refinement of ClickHouse {@code api_logs} into {@code api_logs_refined}. When the rules compile
+ * to a {@link ColumnarRefiner}, rows are read into pooled {@link RefinementBatch}es, refined in place and
+ * encoded straight from the columns; otherwise one {@link ApiLogRefined} is built per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClickHouseRefinementEtl {
+    private final ClickHouseLogRepository clickHouseRepository;
+    private final ClickHouseLogWriter clickHouseWriter;
+    private final ApiLogRefiner refiner;
+    private final AppProperties props;
+
+    /** Refines logs with {@code from <= timestamp < to}; null bounds are open. */
+    public EtlStats run(String name, Instant from, Instant to) throws Exception {
+        AppProperties.Etl etl = props.getEtl();
+        Optional<ColumnarRefiner> columnar = refiner.columnar();
+        if (columnar.isEmpty()) {
+            return new EtlPipeline<ApiLog, ApiLogRefined>(name, etl.getBatchSize(), etl.getQueueCapacity(), etl.getTransformThreads())
+                    .run(rows -> clickHouseRepository.streamForRefinement(etl.getFetchSize(), from, to, rows),
+                            refiner::refine,
+                            clickHouseWriter::saveRefinedAll);
+        }
+
+        ColumnarRefiner columnarRefiner = columnar.get();
+        EtlPipeline<?, ?> pipeline = new EtlPipeline<>(name, etl.getBatchSize(), etl.getQueueCapacity(), etl.getTransformThreads());
+        RefinementBatchPool pool = new RefinementBatchPool(pipeline.maxInFlightBatches(), pipeline.batchSize(), pipeline::failed);
+        return pipeline.runBatches(
+                batches -> clickHouseRepository.streamBatchesForRefinement(etl.getFetchSize(), from, to, pool::acquire, batches),
+                RefinementBatch::size,
+                columnarRefiner::refine,
+                batch -> {
+                    try {
+                        clickHouseWriter.saveRefinedBatch(batch);
+                    } finally {
+                        pool.release(batch);
+                    }
+                },
+                RefinementBatch::size);
+    }
+}
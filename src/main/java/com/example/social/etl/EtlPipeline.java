@@ -0,0 +1,247 @@
+package com.example.social.etl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Three-stage streaming ETL: one reader, {@code transformThreads} transformers and one writer,
+ * connected by bounded batch queues. At most {@code queueCapacity} batches wait between two stages,
+ * so memory stays constant regardless of the source size. Batch order is not preserved.
+ * Counters are per instance, so use one instance per run.
+ */
+@Slf4j
+public class EtlPipeline<I, O> {
+    private static final Object END = new Object();
+
+    private final String name;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int transformThreads;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+    private final AtomicLong transformNanos = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+
+    /** Source that emits whole batches, e.g. columnar ones it fills itself. */
+    @FunctionalInterface
+    public interface BatchSource<B> {
+        void stream(Consumer<B> batches) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter<R> {
+        void write(R batch) throws Exception;
+    }
+
+    public EtlPipeline(String name, int batchSize, int queueCapacity, int transformThreads) {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.transformThreads = Math.max(1, transformThreads);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Upper bound on batches handed to the pipeline but not yet written: both queues full,
+     * every transformer and the writer busy, plus the batch being filled.
+     */
+    public int maxInFlightBatches() {
+        return 2 * queueCapacity + transformThreads + 2;
+    }
+
+    public long maxInFlightRecords() {
+        return (long) maxInFlightBatches() * batchSize;
+    }
+
+    /** True once any stage failed; long-blocking sources should poll it and give up. */
+    public boolean failed() {
+        return failure.get() != null;
+    }
+
+    public EtlStats run(EtlSource<I> source, Function<List<I>, List<O>> transform, EtlWriter<O> writer) throws Exception {
+        return runBatches(batches -> batchRows(source, batches), List::size, transform, writer::write, List::size);
+    }
+
+    /**
+     * Batch-level variant of {@link #run}: the source emits complete batches and {@code transform}
+     * maps a batch to a batch, so callers can use their own (e.g. columnar, pooled) batch types.
+     */
+    public <B, R> EtlStats runBatches(BatchSource<B> source, ToIntFunction<? super B> inputSize,
+                                      Function<B, R> transform, BatchWriter<R> writer,
+                                      ToIntFunction<? super R> outputSize) throws Exception {
+        BlockingQueue<Object> raw = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> refined = new ArrayBlockingQueue<>(queueCapacity);
+        long start = System.nanoTime();
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(stage("read", () -> read(source, inputSize, raw)));
+        for (int i = 0; i < transformThreads; i++) {
+            threads.add(stage("transform-" + i, () -> transform(raw, refined, transform)));
+        }
+        threads.add(stage("write", () -> write(refined, writer, outputSize)));
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof Exception e) {
+            throw e;
+        }
+        if (error != null) {
+            throw new IllegalStateException(name + " ETL failed", error);
+        }
+        return new EtlStats(read.get(), written.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(readNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(transformNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(writeNanos.get()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void batchRows(EtlSource<I> source, Consumer<List<I>> batches) throws Exception {
+        List<I>[] batch = new List[]{new ArrayList<>(batchSize)};
+        source.stream(row -> {
+            synchronized (batch) {
+                batch[0].add(row);
+                if (batch[0].size() >= batchSize) {
+                    batches.accept(batch[0]);
+                    batch[0] = new ArrayList<>(batchSize);
+                }
+            }
+        });
+        if (!batch[0].isEmpty()) {
+            batches.accept(batch[0]);
+        }
+    }
+
+    private <B> void read(BatchSource<B> source, ToIntFunction<? super B> inputSize, BlockingQueue<Object> out) throws Exception {
+        long[] mark = {System.nanoTime()};
+        try {
+            source.stream(batch -> {
+                readNanos.addAndGet(System.nanoTime() - mark[0]);
+                read.addAndGet(inputSize.applyAsInt(batch));
+                put(out, batch);
+                mark[0] = System.nanoTime();
+            });
+            readNanos.addAndGet(System.nanoTime() - mark[0]);
+        } finally {
+            for (int i = 0; i < transformThreads; i++) {
+                putEnd(out);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <B, R> void transform(BlockingQueue<Object> in, BlockingQueue<Object> out, Function<B, R> transform) throws InterruptedException {
+        try {
+            while (true) {
+                Object batch = in.take();
+                if (batch == END) {
+                    return;
+                }
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    long begin = System.nanoTime();
+                    R result = transform.apply((B) batch);
+                    transformNanos.addAndGet(System.nanoTime() - begin);
+                    put(out, result);
+                } catch (RuntimeException e) {
+                    fail("transform", e);
+                }
+            }
+        } finally {
+            putEnd(out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> void write(BlockingQueue<Object> in, BatchWriter<R> writer, ToIntFunction<? super R> outputSize) throws InterruptedException {
+        int finished = 0;
+        while (finished < transformThreads) {
+            Object batch = in.take();
+            if (batch == END) {
+                finished++;
+                continue;
+            }
+            int size = outputSize.applyAsInt((R) batch);
+            if (failure.get() != null || size == 0) {
+                continue;
+            }
+            try {
+                long begin = System.nanoTime();
+                writer.write((R) batch);
+                writeNanos.addAndGet(System.nanoTime() - begin);
+                written.addAndGet(size);
+            } catch (Exception e) {
+                fail("write", e);
+            }
+        }
+    }
+
+    /**
+     * Blocks while the queue is full, giving up once another stage has failed. Checked before every offer:
+     * failed stages keep draining their queues, so the queue may never fill up again.
+     */
+    private void put(BlockingQueue<Object> queue, Object batch) {
+        try {
+            do {
+                if (failure.get() != null) {
+                    throw new CancellationException(name + " ETL cancelled");
+                }
+            } while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException(name + " ETL interrupted");
+        }
+    }
+
+    private void putEnd(BlockingQueue<Object> queue) {
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(String stage, Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            log.error("{} ETL {} stage failed: {}", name, stage, e.toString());
+        }
+    }
+
+    /** Stages never exit before their end markers, so a failed run still drains and terminates. */
+    private Thread stage(String stage, Stage body) {
+        return Thread.ofPlatform().name("etl-" + name + "-" + stage).start(() -> {
+            try {
+                body.run();
+            } catch (Throwable e) {
+                fail(stage, e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+}
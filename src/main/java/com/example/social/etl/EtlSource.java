@@ -0,0 +1,13 @@
+package com.example.social.etl;
+
+import java.util.function.Consumer;
+
+/**
+ * Forward-only source of records. {@link #stream} pushes every record to {@code rows}
+ * as it is read; the consumer blocks when downstream stages are full and is safe to call
+ * from several threads, so a source may read partitions in parallel.
+ */
+@FunctionalInterface
+public interface EtlSource<I> {
+    void stream(Consumer<? super I> rows) throws Exception;
+}
@@ -0,0 +1,13 @@
+package com.example.social.etl;
+
+/**
+ * Outcome of one {@link EtlPipeline} run. Stage times are the busy time of that stage
+ * (summed over transform threads), so together they can exceed {@code totalMillis}.
+ */
+public record EtlStats(long recordsRead,
+                       long recordsWritten,
+                       long totalMillis,
+                       long readMillis,
+                       long transformMillis,
+                       long writeMillis) {
+}
@@ -0,0 +1,8 @@
+package com.example.social.etl;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface EtlWriter<O> {
+    void write(List<O> batch) throws Exception;
+}
@@ -0,0 +1,104 @@
+package com.example.social.etl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.domain.entity.EtlWatermark;
+import com.example.social.domain.repository.ElasticsearchRefinedLogRepository;
+import com.example.social.domain.repository.EtlWatermarkRepository;
+import com.example.social.logging.sink.ApiLogIndices;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Refines only logs that arrived since the last run. Each target keeps a high-watermark on
+ * {@code timestamp} in {@code etl_watermarks}; a run covers {@code [watermark - overlap, now - lag)}
+ * and advances the watermark only after everything was written. Refined ids are deterministic,
+ * so the overlap and retried windows overwrite instead of duplicating.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncrementalRefinementJob {
+    public static final String CLICKHOUSE = "clickhouse";
+    public static final String ELASTICSEARCH = "elasticsearch";
+
+    private final ClickHouseRefinementEtl clickHouseRefinementEtl;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchRefinedLogRepository elasticsearchRefinedRepository;
+    private final ApiLogIndices apiLogIndices;
+    private final EtlWatermarkRepository watermarks;
+    private final ApiLogRefiner refiner;
+    private final RefinementPushdown refinementPushdown;
+    private final AppProperties props;
+
+    @Scheduled(fixedDelayString = "${app.etl.incremental.interval-millis:60000}",
+            initialDelayString = "${app.etl.incremental.interval-millis:60000}")
+    public void run() {
+        AppProperties.Etl.Incremental config = props.getEtl().getIncremental();
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (String target : config.getTargets()) {
+            try {
+                runOnce(target);
+            } catch (Exception e) {
+                log.warn("Incremental refinement into {} failed, retrying next run: {}", target, e.toString());
+            }
+        }
+    }
+
+    /**
+     * @return stats of the window processed, or null when there was nothing new
+     */
+    public EtlStats runOnce(String target) throws Exception {
+        AppProperties.Etl etl = props.getEtl();
+        String job = target + "-refine";
+        Instant to = Instant.now().minusMillis(etl.getIncremental().getLagMillis());
+        EtlWatermark current = watermarks.findById(job).orElse(null);
+        if (current != null && !current.getWatermark().isBefore(to)) {
+            return null;
+        }
+        Instant from = current != null ? current.getWatermark().minusMillis(etl.getIncremental().getOverlapMillis()) : null;
+
+        boolean pushdown = refiner.pushdown();
+        EtlStats stats = switch (target) {
+            case CLICKHOUSE -> pushdown ? refinementPushdown.clickHouse(from, to) : clickHouseRefinementEtl.run(job, from, to);
+            case ELASTICSEARCH -> pushdown ? refinementPushdown.elasticsearch(from, to) : new EtlPipeline<ApiLog, ApiLogRefined>(
+                    job, etl.getBatchSize(), etl.getQueueCapacity(), etl.getTransformThreads()).run(
+                    elasticsearchSource(from, to),
+                    refiner::refine,
+                    elasticsearchRefinedRepository::saveAll);
+            default -> throw new IllegalArgumentException("Unknown refinement target '" + target + "'");
+        };
+
+        watermarks.save(EtlWatermark.builder()
+                .job(job)
+                .watermark(to)
+                .lastRunRows(stats.recordsWritten())
+                .updatedAt(Instant.now())
+                .build());
+        log.info("Refined {} logs into {} up to {} in {} ms{}", stats.recordsWritten(), target, to, stats.totalMillis(), pushdown ? " (pushdown)" : "");
+        return stats;
+    }
+
+    private EtlSource<ApiLog> elasticsearchSource(Instant from, Instant to) {
+        AppProperties.Etl etl = props.getEtl();
+        return SlicedPitReader.<ApiLogRefiner.Source, ApiLog>builder()
+                .client(elasticsearchClient)
+                .index(apiLogIndices.alias())
+                .documentType(ApiLogRefiner.Source.class)
+                .includes(ApiLogRefiner.SOURCE_FIELDS)
+                .query(ApiLogIndices.timestampRange(from, to))
+                .mapper((id, source) -> source.toApiLog(id))
+                .slices(etl.getSlices())
+                .pageSize(etl.getPageSize())
+                .keepAlive(etl.getPitKeepAlive())
+                .build();
+    }
+}
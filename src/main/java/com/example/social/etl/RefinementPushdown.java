@@ -0,0 +1,94 @@
+package com.example.social.etl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.SlicesCalculation;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.logging.sink.ApiLogIndices;
+import com.example.social.logging.sink.ElasticsearchTasks;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the refinement rules inside the storage engines instead of the JVM: an
+ * {@code INSERT INTO api_logs_refined SELECT ...} on ClickHouse and a sliced {@code _reindex}
+ * with a Painless script on Elasticsearch. Rows never pass through the application.
+ */
+@Component
+public class RefinementPushdown {
+    private final JdbcTemplate clickHouse;
+    private final ElasticsearchClient elasticsearch;
+    private final ApiLogIndices apiLogIndices;
+    private final String refinedIndex;
+    private final ApiLogRefiner refiner;
+    private final String database;
+
+    public RefinementPushdown(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate clickHouse,
+                              ElasticsearchClient elasticsearch,
+                              ElasticsearchOperations operations,
+                              ApiLogIndices apiLogIndices,
+                              ApiLogRefiner refiner,
+                              AppProperties props) {
+        this.clickHouse = clickHouse;
+        this.elasticsearch = elasticsearch;
+        this.apiLogIndices = apiLogIndices;
+        this.refinedIndex = operations.getIndexCoordinatesFor(ApiLogRefined.class).getIndexName();
+        this.refiner = refiner;
+        this.database = props.getClickhouse().getDatabase();
+    }
+
+    /** Refines {@code from <= timestamp < to} of {@code api_logs}; null bounds are open. */
+    public EtlStats clickHouse(Instant from, Instant to) {
+        List<String> conditions = new ArrayList<>(2);
+        List<Object> args = new ArrayList<>(2);
+        if (from != null) {
+            conditions.add("`timestamp` >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            conditions.add("`timestamp` < ?");
+            args.add(Timestamp.from(to));
+        }
+        String sql = "INSERT INTO " + database + ".api_logs_refined (id, originalLogId, userType, durationColor) "
+                + refiner.rules().clickHouseSelect(database + ".api_logs", conditions.isEmpty() ? null : String.join(" AND ", conditions));
+
+        long start = System.nanoTime();
+        long rows = clickHouse.update(sql, args.toArray());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new EtlStats(rows, rows, millis, 0, millis, 0);
+    }
+
+    /** Reindexes {@code from <= timestamp < to} of the api-logs alias into the refined index; null bounds are open. */
+    public EtlStats elasticsearch(Instant from, Instant to) throws Exception {
+        String script = refiner.rules().painlessScript();
+        long start = System.nanoTime();
+
+        String task = elasticsearch.reindex(r -> r
+                .source(s -> s.index(apiLogIndices.alias()).query(ApiLogIndices.timestampRange(from, to)))
+                .dest(d -> d.index(refinedIndex))
+                .script(s -> s.source(src -> src.scriptString(script)).lang("painless"))
+                .slices(s -> s.computed(SlicesCalculation.Auto))
+                .conflicts(Conflicts.Proceed)
+                .waitForCompletion(false)).task();
+
+        ReindexResponse status = ElasticsearchTasks.awaitReindex(elasticsearch, task, "Reindex into " + refinedIndex);
+        long written = status != null ? orZero(status.created()) + orZero(status.updated()) : 0;
+        long total = status != null && status.total() != null ? status.total() : written;
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new EtlStats(total, written, millis, 0, millis, 0);
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+}
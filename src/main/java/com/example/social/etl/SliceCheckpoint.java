@@ -0,0 +1,78 @@
+package com.example.social.etl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-slice resume positions of a {@link SlicedPitReader}, rewritten atomically on every update.
+ * Positions only apply to the same slice count they were recorded with.
+ */
+@Slf4j
+public class SliceCheckpoint {
+    private final Path file;
+    private final TreeMap<Integer, Position> positions = new TreeMap<>();
+    private int slices;
+
+    public record Position(long timestamp, String id, long count) {
+    }
+
+    public SliceCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    public synchronized Map<Integer, Position> load(int slices) {
+        this.slices = slices;
+        positions.clear();
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || Integer.parseInt(lines.getFirst()) != slices) {
+                log.warn("Ignoring ETL checkpoint {} recorded with a different slice count", file);
+                return Map.of();
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] parts = line.split("\t", 4);
+                positions.put(Integer.parseInt(parts[0]), new Position(Long.parseLong(parts[1]), parts[3], Long.parseLong(parts[2])));
+            }
+            return Map.copyOf(positions);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading ETL checkpoint " + file + " failed", e);
+        }
+    }
+
+    public synchronized void save(int slice, Position position) {
+        positions.put(slice, position);
+        StringBuilder out = new StringBuilder().append(slices).append('\n');
+        positions.forEach((s, p) -> out.append(s).append('\t').append(p.timestamp()).append('\t')
+                .append(p.count()).append('\t').append(p.id()).append('\n'));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, out, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing ETL checkpoint " + file + " failed", e);
+        }
+    }
+
+    /** Called once the whole job has been written; the next run starts from scratch. */
+    public synchronized void clear() {
+        positions.clear();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Deleting ETL checkpoint " + file + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.social.etl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Reads an index through one point-in-time, with {@code slices} slices consumed in parallel
+ * via {@code search_after}. Slices hash on {@code timestamp} and sort on ({@code timestamp}, {@code id}),
+ * so positions stay valid across PITs and a restarted job resumes each slice from its checkpoint.
+ * A checkpoint trails the read position by {@code inFlightRecords}, so records still queued
+ * downstream at a crash are read again rather than lost.
+ */
+@Slf4j
+public class SlicedPitReader<D, T> implements EtlSource<T> {
+    private final ElasticsearchClient client;
+    private final String index;
+    private final Class<D> documentType;
+    private final List<String> includes;
+    private final Query query;
+    private final BiFunction<String, D, T> mapper;
+    private final int slices;
+    private final int pageSize;
+    private final String keepAlive;
+    private final SliceCheckpoint checkpoint;
+    private final long inFlightRecords;
+    private final AtomicLongArray progress;
+
+    @Builder
+    private SlicedPitReader(ElasticsearchClient client, String index, Class<D> documentType, List<String> includes,
+                            Query query, BiFunction<String, D, T> mapper, int slices, int pageSize, String keepAlive,
+                            SliceCheckpoint checkpoint, long inFlightRecords) {
+        this.client = client;
+        this.index = index;
+        this.documentType = documentType;
+        this.includes = includes;
+        this.query = query;
+        this.mapper = mapper;
+        this.slices = Math.max(1, slices);
+        this.pageSize = pageSize > 0 ? pageSize : 5000;
+        this.keepAlive = keepAlive != null ? keepAlive : "2m";
+        this.checkpoint = checkpoint;
+        this.inFlightRecords = inFlightRecords;
+        this.progress = new AtomicLongArray(this.slices);
+    }
+
+    @Override
+    public void stream(Consumer<? super T> rows) throws Exception {
+        Map<Integer, SliceCheckpoint.Position> resume = checkpoint != null ? checkpoint.load(slices) : Map.of();
+        String pitId = client.openPointInTime(o -> o.index(index).keepAlive(k -> k.time(keepAlive))).id();
+
+        ExecutorService pool = Executors.newFixedThreadPool(slices, Thread.ofPlatform().name("etl-slice-", 0).factory());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int slice = 0; slice < slices; slice++) {
+                int id = slice;
+                running.add(pool.submit(() -> {
+                    readSlice(pitId, id, resume.get(id), rows);
+                    return null;
+                }));
+            }
+            for (Future<?> slice : running) {
+                try {
+                    slice.get();
+                } catch (ExecutionException e) {
+                    pool.shutdownNow();
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            try {
+                client.closePointInTime(c -> c.id(pitId));
+            } catch (Exception e) {
+                log.warn("Closing point-in-time on {} failed: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    /** Records read so far per slice, including those skipped by resuming. */
+    public AtomicLongArray progress() {
+        return progress;
+    }
+
+    private void readSlice(String pitId, int slice, SliceCheckpoint.Position from, Consumer<? super T> rows) throws Exception {
+        List<FieldValue> after = from != null ? List.of(FieldValue.of(from.timestamp()), FieldValue.of(from.id())) : null;
+        long count = from != null ? from.count() : 0;
+        progress.set(slice, count);
+        ArrayDeque<SliceCheckpoint.Position> unsafe = new ArrayDeque<>();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<FieldValue> searchAfter = after;
+            SearchResponse<D> response = client.search(s -> {
+                s.size(pageSize)
+                        .pit(p -> p.id(pitId).keepAlive(k -> k.time(keepAlive)))
+                        .sort(o -> o.field(f -> f.field("timestamp").order(SortOrder.Asc)))
+                        .sort(o -> o.field(f -> f.field("id").order(SortOrder.Asc)))
+                        .source(src -> src.filter(f -> f.includes(includes)))
+                        .trackTotalHits(t -> t.enabled(false));
+                if (slices > 1) {
+                    s.slice(sl -> sl.field("timestamp").id(String.valueOf(slice)).max(slices));
+                }
+                if (query != null) {
+                    s.query(query);
+                }
+                if (searchAfter != null) {
+                    s.searchAfter(searchAfter);
+                }
+                return s;
+            }, documentType);
+
+            List<Hit<D>> hits = response.hits().hits();
+            if (hits.isEmpty()) {
+                break;
+            }
+            for (Hit<D> hit : hits) {
+                rows.accept(mapper.apply(hit.id(), hit.source()));
+            }
+            after = hits.getLast().sort();
+            count += hits.size();
+            progress.set(slice, count);
+            if (checkpoint != null) {
+                checkpoint(slice, new SliceCheckpoint.Position(after.get(0).longValue(), after.get(1).stringValue(), count), unsafe);
+            }
+        }
+        log.info("ETL slice {}/{} of {} finished after {} records", slice, slices, index, count);
+    }
+
+    private void checkpoint(int slice, SliceCheckpoint.Position position, ArrayDeque<SliceCheckpoint.Position> unsafe) {
+        unsafe.addLast(position);
+        SliceCheckpoint.Position safe = null;
+        while (!unsafe.isEmpty() && unsafe.peekFirst().count() <= position.count() - inFlightRecords) {
+            safe = unsafe.pollFirst();
+        }
+        if (safe != null) {
+            checkpoint.save(slice, safe);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.social.etl.columnar;
+
+import com.example.social.etl.refine.RangeBucketRule;
+import com.example.social.etl.refine.RefinementRule;
+import com.example.social.etl.refine.RefinementRuleSet;
+import com.example.social.etl.refine.SuffixParityRule;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+/**
+ * Applies a {@link RefinementRuleSet} to a {@link RefinementBatch} column by column: suffix parity is
+ * parsed straight from the userId bytes, duration buckets compare against a {@code long[]}, and the
+ * refined id is hashed and hex-encoded into the batch. No per-row objects are created.
+ * Only rule sets of one {@link SuffixParityRule} on userId and one {@link RangeBucketRule} on duration compile.
+ */
+public final class ColumnarRefiner {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte EVEN = 0, ODD = 1, UNKNOWN = 2;
+
+    private final byte separator;
+    private final long[] upperBounds;
+    private final String[] userTypeLabels;
+    private final byte[][] userTypeLabelBytes;
+    private final String[] colorLabels;
+    private final byte[][] colorLabelBytes;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private ColumnarRefiner(SuffixParityRule parity, RangeBucketRule buckets) {
+        this.separator = (byte) parity.separator();
+        this.upperBounds = buckets.upperBounds().stream().mapToLong(Long::longValue).toArray();
+        this.userTypeLabels = new String[]{parity.even(), parity.odd(), parity.unknown()};
+        this.colorLabels = buckets.labels().toArray(String[]::new);
+        this.userTypeLabelBytes = utf8(userTypeLabels);
+        this.colorLabelBytes = utf8(colorLabels);
+    }
+
+    public static Optional<ColumnarRefiner> compile(RefinementRuleSet rules) {
+        SuffixParityRule parity = null;
+        RangeBucketRule buckets = null;
+        for (RefinementRule rule : rules.rules()) {
+            if (rule instanceof SuffixParityRule p && p.target().equals("userType") && p.field().equals("userId") && p.separator() < 0x80) {
+                parity = p;
+            } else if (rule instanceof RangeBucketRule b && b.target().equals("durationColor") && b.field().equals("duration") && b.labels().size() <= Byte.MAX_VALUE) {
+                buckets = b;
+            } else {
+                return Optional.empty();
+            }
+        }
+        return parity != null && buckets != null ? Optional.of(new ColumnarRefiner(parity, buckets)) : Optional.empty();
+    }
+
+    public RefinementBatch refine(RefinementBatch batch) {
+        batch.labels(userTypeLabels, userTypeLabelBytes, colorLabels, colorLabelBytes);
+        Scratch s = scratch.get();
+        byte[] userIds = batch.userIdBytes();
+        byte[] ids = batch.idBytes();
+        byte[] refinedIds = batch.refinedIds();
+
+        for (int row = 0, n = batch.size(); row < n; row++) {
+            batch.userType(row, parity(userIds, batch.userIdOffset(row), batch.userIdLength(row)));
+            batch.durationColor(row, bucket(batch.duration(row)));
+
+            s.sha256.update(ids, batch.idOffset(row), batch.idLength(row));
+            try {
+                s.sha256.digest(s.digest, 0, s.digest.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            int out = batch.refinedIdOffset(row);
+            for (int i = 0; i < RefinementBatch.REFINED_ID_LENGTH / 2; i++) {
+                refinedIds[out++] = HEX[(s.digest[i] >> 4) & 0xF];
+                refinedIds[out++] = HEX[s.digest[i] & 0xF];
+            }
+        }
+        return batch;
+    }
+
+    /** Same result as {@link SuffixParityRule#apply}: int of ASCII digits between the first and second separator. */
+    private byte parity(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int start = -1;
+        for (int i = offset; i < end; i++) {
+            if (data[i] == separator) {
+                start = i + 1;
+                break;
+            }
+        }
+        if (start < 0) {
+            return UNKNOWN;
+        }
+        int stop = end;
+        for (int i = start; i < end; i++) {
+            if (data[i] == separator) {
+                stop = i;
+                break;
+            }
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < stop && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        if (i == stop) {
+            return UNKNOWN;
+        }
+        long limit = negative ? 2_147_483_648L : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < stop; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return UNKNOWN;
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                return UNKNOWN;
+            }
+        }
+        return (value & 1) == 0 ? EVEN : ODD;
+    }
+
+    private byte bucket(long duration) {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (duration < upperBounds[i]) {
+                return (byte) i;
+            }
+        }
+        return (byte) upperBounds.length;
+    }
+
+    private static byte[][] utf8(String[] labels) {
+        byte[][] encoded = new byte[labels.length][];
+        for (int i = 0; i < labels.length; i++) {
+            encoded[i] = labels[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private static final class Scratch {
+        private final MessageDigest sha256;
+        private final byte[] digest = new byte[32];
+
+        private Scratch() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
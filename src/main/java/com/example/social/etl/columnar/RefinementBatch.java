@@ -0,0 +1,185 @@
+package com.example.social.etl.columnar;
+
+import com.example.social.domain.entity.ApiLogRefined;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar batch of logs being refined: ids and userIds as UTF-8 bytes addressed by offset arrays,
+ * durations as a {@code long[]}, and the outputs as byte codes into label tables plus fixed-width
+ * refined ids. Arrays only grow, so a recycled batch fills and refines without allocating.
+ */
+public final class RefinementBatch {
+    public static final int REFINED_ID_LENGTH = 32;
+
+    private int size;
+    private long[] durations;
+    private byte[] ids;
+    private int[] idOffsets;
+    private byte[] userIds;
+    private int[] userIdOffsets;
+
+    private byte[] userTypes;
+    private byte[] durationColors;
+    private byte[] refinedIds;
+    private String[] userTypeLabels = new String[0];
+    private String[] durationColorLabels = new String[0];
+    private byte[][] userTypeLabelBytes = new byte[0][];
+    private byte[][] durationColorLabelBytes = new byte[0][];
+
+    public RefinementBatch(int capacity) {
+        int rows = Math.max(1, capacity);
+        durations = new long[rows];
+        ids = new byte[rows * 36];
+        idOffsets = new int[rows + 1];
+        userIds = new byte[rows * 16];
+        userIdOffsets = new int[rows + 1];
+        userTypes = new byte[rows];
+        durationColors = new byte[rows];
+        refinedIds = new byte[rows * REFINED_ID_LENGTH];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return durations.length;
+    }
+
+    public boolean isFull() {
+        return size == durations.length;
+    }
+
+    public void add(String id, String userId, long duration) {
+        if (isFull()) {
+            growRows();
+        }
+        durations[size] = duration;
+        ids = append(ids, idOffsets, size, id);
+        userIds = append(userIds, userIdOffsets, size, userId);
+        size++;
+    }
+
+    // ---- inputs
+
+    public long duration(int row) {
+        return durations[row];
+    }
+
+    public byte[] idBytes() {
+        return ids;
+    }
+
+    public int idOffset(int row) {
+        return idOffsets[row];
+    }
+
+    public int idLength(int row) {
+        return idOffsets[row + 1] - idOffsets[row];
+    }
+
+    public byte[] userIdBytes() {
+        return userIds;
+    }
+
+    public int userIdOffset(int row) {
+        return userIdOffsets[row];
+    }
+
+    public int userIdLength(int row) {
+        return userIdOffsets[row + 1] - userIdOffsets[row];
+    }
+
+    // ---- outputs, filled by ColumnarRefiner
+
+    void labels(String[] userTypeLabels, byte[][] userTypeLabelBytes, String[] durationColorLabels, byte[][] durationColorLabelBytes) {
+        this.userTypeLabels = userTypeLabels;
+        this.userTypeLabelBytes = userTypeLabelBytes;
+        this.durationColorLabels = durationColorLabels;
+        this.durationColorLabelBytes = durationColorLabelBytes;
+    }
+
+    void userType(int row, byte code) {
+        userTypes[row] = code;
+    }
+
+    void durationColor(int row, byte code) {
+        durationColors[row] = code;
+    }
+
+    public byte[] refinedIds() {
+        return refinedIds;
+    }
+
+    public int refinedIdOffset(int row) {
+        return row * REFINED_ID_LENGTH;
+    }
+
+    public byte[] userTypeLabel(int row) {
+        return userTypeLabelBytes[userTypes[row]];
+    }
+
+    public byte[] durationColorLabel(int row) {
+        return durationColorLabelBytes[durationColors[row]];
+    }
+
+    /** Row form for writers without a columnar path; allocates one object per row. */
+    public List<ApiLogRefined> toRefined() {
+        List<ApiLogRefined> refined = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            refined.add(ApiLogRefined.builder()
+                    .id(new String(refinedIds, refinedIdOffset(row), REFINED_ID_LENGTH, StandardCharsets.US_ASCII))
+                    .originalLogId(new String(ids, idOffset(row), idLength(row), StandardCharsets.UTF_8))
+                    .userType(userTypeLabels[userTypes[row]])
+                    .durationColor(durationColorLabels[durationColors[row]])
+                    .build());
+        }
+        return refined;
+    }
+
+    private void growRows() {
+        int rows = durations.length * 2;
+        durations = Arrays.copyOf(durations, rows);
+        idOffsets = Arrays.copyOf(idOffsets, rows + 1);
+        userIdOffsets = Arrays.copyOf(userIdOffsets, rows + 1);
+        userTypes = Arrays.copyOf(userTypes, rows);
+        durationColors = Arrays.copyOf(durationColors, rows);
+        refinedIds = Arrays.copyOf(refinedIds, rows * REFINED_ID_LENGTH);
+    }
+
+    /** Appends {@code value} as UTF-8 at {@code offsets[row]}; ASCII is copied char by char without allocating. */
+    private static byte[] append(byte[] data, int[] offsets, int row, String value) {
+        int at = offsets[row];
+        if (value == null) {
+            offsets[row + 1] = at;
+            return data;
+        }
+        int length = value.length();
+        if (at + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, at + length));
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (at + encoded.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, at + encoded.length));
+                }
+                System.arraycopy(encoded, 0, data, at, encoded.length);
+                offsets[row + 1] = at + encoded.length;
+                return data;
+            }
+            data[at + i] = (byte) c;
+        }
+        offsets[row + 1] = at + length;
+        return data;
+    }
+}
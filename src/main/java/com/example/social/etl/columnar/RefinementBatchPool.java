@@ -0,0 +1,51 @@
+package com.example.social.etl.columnar;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Recycles {@link RefinementBatch}es between the writer and the reader of one ETL run. Creates at most
+ * {@code maxBatches}; {@link #acquire} blocks once all are in flight and gives up when {@code cancelled}.
+ */
+public final class RefinementBatchPool {
+    private final BlockingQueue<RefinementBatch> free;
+    private final AtomicInteger created = new AtomicInteger();
+    private final int maxBatches;
+    private final int batchSize;
+    private final BooleanSupplier cancelled;
+
+    public RefinementBatchPool(int maxBatches, int batchSize, BooleanSupplier cancelled) {
+        this.free = new ArrayBlockingQueue<>(maxBatches);
+        this.maxBatches = maxBatches;
+        this.batchSize = batchSize;
+        this.cancelled = cancelled;
+    }
+
+    public RefinementBatch acquire() {
+        RefinementBatch batch = free.poll();
+        if (batch == null && created.getAndIncrement() < maxBatches) {
+            return new RefinementBatch(batchSize);
+        }
+        try {
+            while (batch == null) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("ETL cancelled while waiting for a free batch");
+                }
+                batch = free.poll(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("ETL interrupted while waiting for a free batch");
+        }
+        batch.clear();
+        return batch;
+    }
+
+    public void release(RefinementBatch batch) {
+        free.offer(batch);
+    }
+}
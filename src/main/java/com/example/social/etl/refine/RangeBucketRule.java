@@ -0,0 +1,57 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.util.List;
+
+/**
+ * Label of the first upper bound the numeric {@code field} is below; values at or above
+ * the last bound get the last label, so {@code labels} has one more entry than {@code upperBounds}.
+ */
+public record RangeBucketRule(String target, String field, List<Long> upperBounds, List<String> labels) implements RefinementRule {
+
+    public RangeBucketRule {
+        if (labels.size() != upperBounds.size() + 1) {
+            throw new IllegalArgumentException("RangeBucketRule '" + target + "' needs " + (upperBounds.size() + 1) + " labels");
+        }
+        upperBounds = List.copyOf(upperBounds);
+        labels = List.copyOf(labels);
+    }
+
+    @Override
+    public List<String> sourceFields() {
+        return List.of(field);
+    }
+
+    @Override
+    public String apply(ApiLog log) {
+        long value = ((Number) SourceFields.value(log, field)).longValue();
+        for (int i = 0; i < upperBounds.size(); i++) {
+            if (value < upperBounds.get(i)) {
+                return labels.get(i);
+            }
+        }
+        return labels.getLast();
+    }
+
+    @Override
+    public String clickHouseExpression() {
+        StringBuilder sql = new StringBuilder("multiIf(");
+        for (int i = 0; i < upperBounds.size(); i++) {
+            sql.append(field).append(" < ").append(upperBounds.get(i)).append(", '").append(labels.get(i)).append("', ");
+        }
+        return sql.append('\'').append(labels.getLast()).append("')").toString();
+    }
+
+    @Override
+    public String painless() {
+        StringBuilder script = new StringBuilder()
+                .append("long ").append(target).append("Value = s.").append(field).append(" == null ? 0L : ((Number) s.").append(field).append(").longValue();\n")
+                .append("String ").append(target).append(" = '").append(labels.getLast()).append("';\n");
+        for (int i = upperBounds.size() - 1; i >= 0; i--) {
+            script.append("if (").append(target).append("Value < ").append(upperBounds.get(i)).append("L) { ")
+                    .append(target).append(" = '").append(labels.get(i)).append("'; }\n");
+        }
+        return script.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.util.List;
+
+/**
+ * One output field of {@link com.example.social.domain.entity.ApiLogRefined}, declared so it can be
+ * evaluated in the JVM or compiled into a ClickHouse expression and a Painless statement.
+ */
+public sealed interface RefinementRule permits SuffixParityRule, RangeBucketRule {
+
+    /** Output field on the refined record. */
+    String target();
+
+    /** Raw log fields the rule reads. */
+    List<String> sourceFields();
+
+    String apply(ApiLog log);
+
+    /** Expression over {@code api_logs} columns yielding the value. */
+    String clickHouseExpression();
+
+    /** Painless statements declaring {@code String <target>} from {@code Map s} (the source document). */
+    String painless();
+}
@@ -0,0 +1,118 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The refinement of a raw log, declared once and run either in the JVM ({@link #refine}) or
+ * server-side ({@link #clickHouseSelect}, {@link #painlessScript}). Every form derives the refined id
+ * as the first 32 hex digits of SHA-256({@code originalLogId}), so all paths write the same rows.
+ */
+public final class RefinementRuleSet {
+    private static final Set<String> TARGETS = Set.of("userType", "durationColor");
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final List<RefinementRule> rules;
+
+    public RefinementRuleSet(List<RefinementRule> rules) {
+        for (RefinementRule rule : rules) {
+            if (!TARGETS.contains(rule.target())) {
+                throw new IllegalArgumentException("Unknown refinement target '" + rule.target() + "', expected one of " + TARGETS);
+            }
+        }
+        this.rules = List.copyOf(rules);
+    }
+
+    public static RefinementRuleSet defaults() {
+        return new RefinementRuleSet(List.of(
+                new SuffixParityRule("userType", "userId", '-', "CIFT", "TEK", "BILINMIYOR"),
+                new RangeBucketRule("durationColor", "duration",
+                        List.of(200L, 400L, 600L, 800L),
+                        List.of("Green", "Blue", "Yellow", "Orange", "Red"))
+        ));
+    }
+
+    public static String refinedIdFor(String originalLogId) {
+        byte[] digest = SHA_256.get().digest(originalLogId.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, 16);
+    }
+
+    public List<RefinementRule> rules() {
+        return rules;
+    }
+
+    public List<String> sourceFields() {
+        Set<String> fields = new LinkedHashSet<>();
+        rules.forEach(rule -> fields.addAll(rule.sourceFields()));
+        return List.copyOf(fields);
+    }
+
+    public ApiLogRefined refine(ApiLog log) {
+        ApiLogRefined refined = ApiLogRefined.builder()
+                .id(refinedIdFor(log.getId()))
+                .originalLogId(log.getId())
+                .build();
+        for (RefinementRule rule : rules) {
+            String value = rule.apply(log);
+            switch (rule.target()) {
+                case "userType" -> refined.setUserType(value);
+                case "durationColor" -> refined.setDurationColor(value);
+                default -> throw new IllegalStateException(rule.target());
+            }
+        }
+        return refined;
+    }
+
+    /**
+     * {@code SELECT} producing {@code (id, originalLogId, userType, durationColor)} from {@code table};
+     * {@code where} is appended verbatim when not null.
+     */
+    public String clickHouseSelect(String table, String where) {
+        StringBuilder sql = new StringBuilder("SELECT lower(substring(hex(SHA256(id)), 1, 32)) AS id, id AS originalLogId");
+        for (String target : List.of("userType", "durationColor")) {
+            sql.append(", ").append(expressionFor(target)).append(" AS ").append(target);
+        }
+        sql.append(" FROM ").append(table);
+        if (where != null) {
+            sql.append(" WHERE ").append(where);
+        }
+        return sql.toString();
+    }
+
+    /** Reindex script turning an {@code api-logs} document into its refined document. */
+    public String painlessScript() {
+        StringBuilder script = new StringBuilder("Map s = ctx._source;\n");
+        for (RefinementRule rule : rules) {
+            script.append(rule.painless());
+        }
+        script.append("String originalLogId = ctx._id;\n")
+                .append("ctx._id = originalLogId.sha256().substring(0, 32);\n")
+                .append("ctx._source = ['id': ctx._id, 'originalLogId': originalLogId");
+        for (RefinementRule rule : rules) {
+            script.append(", '").append(rule.target()).append("': ").append(rule.target());
+        }
+        return script.append("];\n").toString();
+    }
+
+    private String expressionFor(String target) {
+        return rules.stream()
+                .filter(rule -> rule.target().equals(target))
+                .map(RefinementRule::clickHouseExpression)
+                .findFirst()
+                .orElse("''");
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+
+/** Name-based access to the {@link ApiLog} fields rules may read; names match the column and document field names. */
+final class SourceFields {
+    private SourceFields() {
+    }
+
+    static Object value(ApiLog log, String field) {
+        return switch (field) {
+            case "userId" -> log.getUserId();
+            case "duration" -> log.getDuration();
+            case "statusCode" -> log.getStatusCode();
+            case "httpMethod" -> log.getHttpMethod();
+            case "path" -> log.getPath();
+            case "route" -> log.getRoute();
+            default -> throw new IllegalArgumentException("Field '" + field + "' is not available to refinement rules");
+        };
+    }
+}
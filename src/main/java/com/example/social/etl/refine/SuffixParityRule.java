@@ -0,0 +1,82 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.util.List;
+
+/**
+ * Parity of the integer between the first and second {@code separator} in {@code field}
+ * ({@code "user-12"} is even); {@code unknown} when there is no separator or it is not an int.
+ * Only ASCII digits count, with an optional sign: {@code Integer.parseInt} also takes other Unicode
+ * digits ({@code "user-٣"}), ClickHouse's {@code toInt32OrNull} does not, and every form must agree.
+ */
+public record SuffixParityRule(String target, String field, char separator,
+                               String even, String odd, String unknown) implements RefinementRule {
+
+    @Override
+    public List<String> sourceFields() {
+        return List.of(field);
+    }
+
+    @Override
+    public String apply(ApiLog log) {
+        Object raw = SourceFields.value(log, field);
+        if (raw == null) {
+            return unknown;
+        }
+        String value = raw.toString();
+        int start = value.indexOf(separator);
+        if (start < 0) {
+            return unknown;
+        }
+        int end = value.indexOf(separator, start + 1);
+        if (end < 0) {
+            end = value.length();
+        }
+        for (int i = start + 1; i < end; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && !(i == start + 1 && (c == '-' || c == '+'))) {
+                return unknown;
+            }
+        }
+        try {
+            int number = Integer.parseInt(value, start + 1, end, 10);
+            return number % 2 == 0 ? even : odd;
+        } catch (NumberFormatException e) {
+            return unknown;
+        }
+    }
+
+    @Override
+    public String clickHouseExpression() {
+        String part = "toInt32OrNull(splitByChar('%s', %s)[2])".formatted(separator, field);
+        return "multiIf(position(%s, '%s') = 0 OR isNull(%s), '%s', %s %% 2 = 0, '%s', '%s')"
+                .formatted(field, separator, part, unknown, part, even, odd);
+    }
+
+    @Override
+    public String painless() {
+        return """
+                String %1$s = '%5$s';
+                if (s.%2$s != null) {
+                  String v = s.%2$s.toString();
+                  int a = v.indexOf('%6$s');
+                  if (a >= 0) {
+                    int b = v.indexOf('%6$s', a + 1);
+                    String d = v.substring(a + 1, b < 0 ? v.length() : b);
+                    boolean ascii = true;
+                    for (int i = 0; i < d.length(); i++) {
+                      int c = d.charAt(i);
+                      if ((c < 48 || c > 57) && !(i == 0 && (c == 45 || c == 43))) { ascii = false; }
+                    }
+                    if (ascii) {
+                      try {
+                        int n = Integer.parseInt(d);
+                        %1$s = n %% 2 == 0 ? '%3$s' : '%4$s';
+                      } catch (NumberFormatException e) {}
+                    }
+                  }
+                }
+                """.formatted(target, field, even, odd, unknown, separator);
+    }
+}
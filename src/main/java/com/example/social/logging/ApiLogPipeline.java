@@ -0,0 +1,158 @@
+package com.example.social.logging;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.logging.sink.LogSinkRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves API logs off the request thread: {@link #submit} only samples and enqueues,
+ * background workers hand size/time bounded batches to every enabled sink through {@link LogSinkRegistry}.
+ */
+@Slf4j
+@Component
+public class ApiLogPipeline {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final LogSinkRegistry sinks;
+    private final LogSampler sampler;
+    private final BodyCompression bodyCompression;
+    private final AppProperties.Logging.Pipeline config;
+    private final LogRingBuffer<ApiLog> buffer;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter flushed;
+
+    private volatile boolean running;
+
+    public ApiLogPipeline(LogSinkRegistry sinks, LogSampler sampler, BodyCompression bodyCompression,
+                          AppProperties props, MeterRegistry registry) {
+        this.sinks = sinks;
+        this.sampler = sampler;
+        this.bodyCompression = bodyCompression;
+        this.config = props.getLogging().getPipeline();
+        this.buffer = new LogRingBuffer<>(config.getCapacity());
+
+        Gauge.builder("apilog.pipeline.queue.depth", buffer, LogRingBuffer::size).register(registry);
+        Gauge.builder("apilog.pipeline.queue.capacity", buffer, LogRingBuffer::capacity).register(registry);
+        this.enqueued = registry.counter("apilog.pipeline.enqueued");
+        this.dropped = registry.counter("apilog.pipeline.dropped", "policy", config.getOverflowPolicy().name());
+        this.flushed = registry.counter("apilog.pipeline.flushed");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < Math.max(1, config.getWorkers()); i++) {
+            workers.add(Thread.ofPlatform()
+                    .name("api-log-pipeline-" + i)
+                    .daemon(true)
+                    .start(this::drainLoop));
+        }
+    }
+
+    public void submit(ApiLog apiLog) {
+        double weight = sampler.weigh(apiLog);
+        if (weight <= 0) {
+            return;
+        }
+        apiLog.setSampleWeight(weight);
+
+        if (buffer.offer(apiLog)) {
+            enqueued.increment();
+            return;
+        }
+
+        switch (config.getOverflowPolicy()) {
+            case DROP_NEW -> dropped.increment();
+            case DROP_OLDEST -> {
+                while (!buffer.offer(apiLog)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                enqueued.increment();
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeoutMillis());
+                while (!buffer.offer(apiLog)) {
+                    if (!running || System.nanoTime() > deadline) {
+                        dropped.increment();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                enqueued.increment();
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    private void drainLoop() {
+        int batchSize = Math.max(1, config.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMillis());
+        List<ApiLog> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+
+        while (running || !buffer.isEmpty()) {
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (drained > 0 && batchStartedAt == 0) {
+                batchStartedAt = System.nanoTime();
+            }
+
+            boolean full = batch.size() >= batchSize;
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStartedAt >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+                batchStartedAt = 0;
+            } else if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<ApiLog> batch) {
+        for (ApiLog apiLog : batch) {
+            bodyCompression.compress(apiLog);
+        }
+        sinks.dispatch(batch);
+        flushed.increment(batch.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getShutdownTimeoutMillis());
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                worker.join(remainingMillis);
+            }
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("API log pipeline stopped with {} records still queued", buffer.size());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.social.logging;
+
+import com.example.social.domain.entity.ApiLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.event.AfterConvertCallback;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+/**
+ * Restores LZ4-compressed bodies on every {@link ApiLog} read from Elasticsearch.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApiLogReadCallback implements AfterConvertCallback<ApiLog> {
+    private final BodyCompression bodyCompression;
+
+    @Override
+    public ApiLog onAfterConvert(ApiLog entity, Document document, IndexCoordinates indexCoordinates) {
+        bodyCompression.decompress(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.social.logging;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Moves request/response bodies above {@code threshold-bytes} into LZ4 blocks
+ * ({@code [rawLength:int][lz4 block]}) on the write path, and restores them on read.
+ */
+@Component
+public class BodyCompression {
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final AppProperties.Logging.Compression config;
+
+    public BodyCompression(AppProperties props) {
+        this.config = props.getLogging().getCompression();
+    }
+
+    public void compress(ApiLog log) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        byte[] request = compress(log.getRequestBody());
+        if (request != null) {
+            log.setRequestBodyLz4(request);
+            log.setRequestBody(null);
+        }
+        byte[] response = compress(log.getResponseBody());
+        if (response != null) {
+            log.setResponseBodyLz4(response);
+            log.setResponseBody(null);
+        }
+    }
+
+    public void decompress(ApiLog log) {
+        if (log.getRequestBodyLz4() != null) {
+            log.setRequestBody(decompress(log.getRequestBodyLz4()));
+            log.setRequestBodyLz4(null);
+        }
+        if (log.getResponseBodyLz4() != null) {
+            log.setResponseBody(decompress(log.getResponseBodyLz4()));
+            log.setResponseBodyLz4(null);
+        }
+    }
+
+    private byte[] compress(String body) {
+        // a char encodes to at most three UTF-8 bytes, so shorter bodies are skipped without encoding them
+        if (body == null || (long) body.length() * 3 < config.getThresholdBytes()) {
+            return null;
+        }
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < config.getThresholdBytes()) {
+            return null;
+        }
+        byte[] out = new byte[Integer.BYTES + COMPRESSOR.maxCompressedLength(raw.length)];
+        ByteBuffer.wrap(out).putInt(raw.length);
+        int written = COMPRESSOR.compress(raw, 0, raw.length, out, Integer.BYTES);
+        if (Integer.BYTES + written >= raw.length) {
+            return null;
+        }
+        return Arrays.copyOf(out, Integer.BYTES + written);
+    }
+
+    private static String decompress(byte[] block) {
+        int rawLength = ByteBuffer.wrap(block).getInt();
+        byte[] raw = new byte[rawLength];
+        DECOMPRESSOR.decompress(block, Integer.BYTES, raw, 0, rawLength);
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.social.logging;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tail-based sampling: errors and slow requests are always kept with weight 1,
+ * healthy fast requests are kept with probability {@code rate} and weight {@code 1 / rate}.
+ * With {@code adaptive-target-per-second} set, the rate is recomputed every second
+ * so that roughly that many healthy records per second are kept.
+ */
+@Component
+public class LogSampler {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final AppProperties.Logging.Sampling config;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private final LongAdder healthyInWindow = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double rate;
+
+    private final Counter kept;
+    private final Counter discarded;
+
+    public LogSampler(AppProperties props, MeterRegistry registry) {
+        this.config = props.getLogging().getSampling();
+        this.rate = clamp(config.getRate());
+        this.kept = registry.counter("apilog.sampling.kept");
+        this.discarded = registry.counter("apilog.sampling.discarded");
+        Gauge.builder("apilog.sampling.rate", this, LogSampler::currentRate).register(registry);
+    }
+
+    /**
+     * @return the weight to store on the record, or 0 when it should be discarded
+     */
+    public double weigh(ApiLog log) {
+        if (!config.isEnabled() || log.getStatusCode() >= 400 || log.getDuration() >= slowThreshold(log.getRoute(), log.getPath())) {
+            kept.increment();
+            return 1.0;
+        }
+
+        healthyInWindow.increment();
+        double current = currentRate();
+        if (current >= 1.0 || ThreadLocalRandom.current().nextDouble() < current) {
+            kept.increment();
+            return 1.0 / current;
+        }
+        discarded.increment();
+        return 0;
+    }
+
+    public double currentRate() {
+        if (config.getAdaptiveTargetPerSecond() <= 0) {
+            return rate;
+        }
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            double observedPerSecond = healthyInWindow.sumThenReset() * (double) WINDOW_NANOS / (now - start);
+            rate = observedPerSecond <= 0 ? 1.0 : clamp(config.getAdaptiveTargetPerSecond() / observedPerSecond);
+        }
+        return rate;
+    }
+
+    private long slowThreshold(String route, String path) {
+        Long exact = route != null ? config.getSlowThresholdMillisByRoute().get(route) : null;
+        if (exact != null) {
+            return exact;
+        }
+        if (path != null) {
+            for (Map.Entry<String, Long> entry : config.getSlowThresholdMillisByRoute().entrySet()) {
+                if (matcher.match(entry.getKey(), path)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return config.getSlowThresholdMillis();
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinRate(), Math.min(1.0, value));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.social.logging;
+
+public enum OverflowPolicy {
+    BLOCK,
+    DROP_OLDEST,
+    DROP_NEW
+}
@@ -0,0 +1,63 @@
+package com.example.social.logging.capture;
+
+import java.nio.charset.Charset;
+
+/**
+ * Keeps the first {@code limit} bytes of a streamed body in a pooled buffer and counts the rest.
+ */
+public class BodyCapture {
+    private final CaptureBufferPool pool;
+    private final int limit;
+    private byte[] buffer;
+    private int captured;
+    private long total;
+
+    BodyCapture(CaptureBufferPool pool, int limit) {
+        this.pool = pool;
+        this.limit = limit;
+    }
+
+    void write(int b) {
+        total++;
+        if (captured < limit) {
+            ensureBuffer();
+            buffer[captured++] = (byte) b;
+        }
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        total += length;
+        int copy = Math.min(length, limit - captured);
+        if (copy > 0) {
+            ensureBuffer();
+            System.arraycopy(bytes, offset, buffer, captured, copy);
+            captured += copy;
+        }
+    }
+
+    private void ensureBuffer() {
+        if (buffer == null) {
+            buffer = pool.acquire(limit);
+        }
+    }
+
+    public String text(Charset charset) {
+        return captured == 0 ? "" : new String(buffer, 0, captured, charset);
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public boolean truncated() {
+        return total > captured;
+    }
+
+    void release() {
+        pool.release(buffer);
+        buffer = null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.social.logging.capture;
+
+import com.example.social.config.AppProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable capture buffers of {@code max-bytes}; larger per-rule limits get a one-off array.
+ */
+@Component
+public class CaptureBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public CaptureBufferPool(AppProperties props) {
+        this.bufferSize = props.getLogging().getCapture().getMaxBytes();
+        this.maxPooled = props.getLogging().getCapture().getPoolSize();
+    }
+
+    public byte[] acquire(int size) {
+        if (size > bufferSize) {
+            return new byte[size];
+        }
+        byte[] buffer = free.poll();
+        if (buffer == null) {
+            return new byte[bufferSize];
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.social.logging.capture;
+
+import com.example.social.config.AppProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Locale;
+
+/**
+ * Resolves how much of a body to keep for a path. The first matching rule wins,
+ * otherwise {@code app.logging.capture.max-bytes} applies to both directions.
+ */
+@Component
+public class CaptureRules {
+    private final AppProperties.Logging.Capture config;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public CaptureRules(AppProperties props) {
+        this.config = props.getLogging().getCapture();
+    }
+
+    public Limits resolve(String path) {
+        if (!config.isEnabled()) {
+            return new Limits(0, 0);
+        }
+        for (AppProperties.Logging.Capture.Rule rule : config.getRules()) {
+            if (matcher.match(rule.getPattern(), path)) {
+                int max = rule.getMaxBytes() >= 0 ? rule.getMaxBytes() : config.getMaxBytes();
+                return new Limits(rule.isRequest() ? max : 0, rule.isResponse() ? max : 0);
+            }
+        }
+        return new Limits(config.getMaxBytes(), config.getMaxBytes());
+    }
+
+    public boolean skipContentType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        for (String skipped : config.getSkipContentTypes()) {
+            if (normalized.startsWith(skipped)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Limits(int request, int response) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.social.logging.capture;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * Writes straight through to the client and keeps only the first bytes of the body.
+ * Whether to capture is decided on the first write, once the content type is known.
+ */
+public class CapturingResponseWrapper extends HttpServletResponseWrapper {
+    private final CaptureBufferPool pool;
+    private final int limit;
+    private final Predicate<String> skipContentType;
+    private BodyCapture capture;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private Charset writerCharset;
+
+    public CapturingResponseWrapper(HttpServletResponse response, CaptureBufferPool pool, int limit,
+                                    Predicate<String> skipContentType) {
+        super(response);
+        this.pool = pool;
+        this.limit = limit;
+        this.skipContentType = skipContentType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            writerCharset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), writerCharset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Pushes anything still held by the wrapper's writer before the body is inspected.
+     */
+    public void flushCapture() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public String capturedBody() {
+        return capture == null ? "" : capture.text(charset());
+    }
+
+    public long originalLength() {
+        return capture == null ? 0 : capture.total();
+    }
+
+    public boolean truncated() {
+        return capture != null && capture.truncated();
+    }
+
+    public void release() {
+        if (capture != null) {
+            capture.release();
+        }
+    }
+
+    private BodyCapture capture() {
+        if (capture == null) {
+            int effectiveLimit = skipContentType.test(getContentType()) ? 0 : limit;
+            capture = new BodyCapture(pool, effectiveLimit);
+        }
+        return capture;
+    }
+
+    /**
+     * Text written through {@link #getWriter()} is decoded with the writer's own charset. Bytes written to the
+     * output stream (Jackson, resource handlers) are UTF-8 unless the content type names a charset; the
+     * container's implicit ISO-8859-1 default says nothing about them.
+     */
+    private Charset charset() {
+        if (writerCharset != null) {
+            return writerCharset;
+        }
+        String contentType = getContentType();
+        if (contentType != null) {
+            try {
+                Charset declared = MediaType.parseMediaType(contentType).getCharset();
+                if (declared != null) {
+                    return declared;
+                }
+            } catch (IllegalArgumentException ignored) {
+                // fall back to UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            capture().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            capture().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.social.logging.sink;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.social.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming and retention of the daily {@code <prefix>-yyyy.MM.dd} API log indices.
+ * Expired days are removed by deleting whole indices rather than by delete-by-query.
+ */
+@Slf4j
+@Component
+public class ApiLogIndices {
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy.MM.dd").withZone(ZoneOffset.UTC);
+
+    private final ElasticsearchClient client;
+    private final AppProperties.Elasticsearch config;
+
+    public ApiLogIndices(ElasticsearchClient client, AppProperties props) {
+        this.client = client;
+        this.config = props.getElasticsearch();
+    }
+
+    public String indexFor(Instant timestamp) {
+        return config.getIndexPrefix() + "-" + DAY.format(timestamp != null ? timestamp : Instant.now());
+    }
+
+    public String alias() {
+        return config.getIndexPrefix();
+    }
+
+    /** {@code from <= timestamp < to}; a null bound is open. */
+    public static Query timestampRange(Instant from, Instant to) {
+        return Query.of(q -> q.range(r -> r.date(d -> {
+            d.field("timestamp");
+            if (from != null) {
+                d.gte(from.toString());
+            }
+            if (to != null) {
+                d.lt(to.toString());
+            }
+            return d;
+        })));
+    }
+
+    @Scheduled(cron = "${app.elasticsearch.retention-cron:0 15 0 * * *}", zone = "UTC")
+    public void dropExpired() {
+        if (config.getRetentionDays() <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(config.getRetentionDays());
+        String prefix = config.getIndexPrefix() + "-";
+        try {
+            List<String> expired = new ArrayList<>();
+            for (String index : client.indices().get(g -> g.index(prefix + "*")).indices().keySet()) {
+                try {
+                    if (LocalDate.parse(index.substring(prefix.length()), DAY).isBefore(cutoff)) {
+                        expired.add(index);
+                    }
+                } catch (DateTimeParseException ignored) {
+                    // not one of ours
+                }
+            }
+            if (!expired.isEmpty()) {
+                client.indices().delete(d -> d.index(expired));
+                log.info("Dropped expired API log indices: {}", expired);
+            }
+        } catch (Exception e) {
+            log.warn("Dropping expired API log indices failed: {}", e.getMessage());
+        }
+    }
+}
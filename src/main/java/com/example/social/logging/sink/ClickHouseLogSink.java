@@ -0,0 +1,26 @@
+package com.example.social.logging.sink;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.repository.ClickHouseLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@ConditionalOnProperty(prefix = "app.logging.sink.clickhouse", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Component
+@RequiredArgsConstructor
+public class ClickHouseLogSink implements LogSink {
+    private final ClickHouseLogWriter clickHouseLogWriter;
+
+    @Override
+    public String name() {
+        return "clickhouse";
+    }
+
+    @Override
+    public void write(List<ApiLog> batch) {
+        clickHouseLogWriter.saveAll(batch);
+    }
+}
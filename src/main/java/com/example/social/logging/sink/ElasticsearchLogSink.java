@@ -0,0 +1,140 @@
+package com.example.social.logging.sink;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Indexes logs into their daily index through a shared {@link BulkIngester}, which merges
+ * concurrent sink writes into bulk requests and keeps several of them in flight.
+ * {@link #write} waits for its own documents, at most the sink's {@code timeout-millis}, so failures
+ * and a stuck flush still reach the dispatcher and end up in the spool.
+ */
+@ConditionalOnProperty(prefix = "app.logging.sink.elasticsearch", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Component
+public class ElasticsearchLogSink implements LogSink {
+    private final ApiLogIndices indices;
+    private final ElasticsearchConverter converter;
+    private final BulkIngester<Pending> ingester;
+    private final long timeoutMillis;
+
+    public ElasticsearchLogSink(ElasticsearchClient client, ElasticsearchOperations operations,
+                                ApiLogIndices indices, AppProperties props) {
+        this.indices = indices;
+        this.converter = operations.getElasticsearchConverter();
+        this.timeoutMillis = props.getLogging().sinkSettings(name()).getTimeoutMillis();
+
+        AppProperties.Elasticsearch.Bulk bulk = props.getElasticsearch().getBulk();
+        this.ingester = BulkIngester.of(b -> b
+                .client(client)
+                .maxOperations(bulk.getMaxOperations())
+                .maxSize(bulk.getMaxSizeBytes())
+                .maxConcurrentRequests(bulk.getMaxConcurrentRequests())
+                .flushInterval(bulk.getFlushIntervalMillis(), TimeUnit.MILLISECONDS)
+                .listener(new Listener()));
+    }
+
+    @Override
+    public String name() {
+        return "elasticsearch";
+    }
+
+    @Override
+    public void write(List<ApiLog> batch) throws Exception {
+        Ack ack = new Ack(batch.size());
+        for (ApiLog log : batch) {
+            Map<String, Object> document = converter.mapObject(log);
+            ingester.add(BulkOperation.of(op -> op.index(i -> i
+                    .index(indices.indexFor(log.getTimestamp()))
+                    .id(log.getId())
+                    .document(document))), new Pending(ack, log));
+        }
+        try {
+            ack.done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // documents that still make it are overwritten by id when the batch is replayed
+            throw new TimeoutException("Bulk indexing of " + batch.size() + " documents did not finish within " + timeoutMillis + " ms");
+        }
+        if (!ack.failed.isEmpty()) {
+            throw new PartialWriteException(ack.failed.size() + " of " + batch.size() + " documents rejected: " + ack.firstError, ack.failed);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        ingester.close();
+    }
+
+    record Pending(Ack ack, ApiLog log) {
+    }
+
+    static final class Ack {
+        private final AtomicInteger remaining;
+        private final List<ApiLog> failed = new ArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile String firstError;
+
+        Ack(int size) {
+            this.remaining = new AtomicInteger(size);
+            if (size == 0) {
+                done.complete(null);
+            }
+        }
+
+        void settle(ApiLog log, String error) {
+            if (error != null) {
+                synchronized (failed) {
+                    failed.add(log);
+                    if (firstError == null) {
+                        firstError = error;
+                    }
+                }
+            }
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+    }
+
+    private static final class Listener implements BulkListener<Pending> {
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Pending> contexts) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Pending> contexts, BulkResponse response) {
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < contexts.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                String error = item.error() != null ? item.error().type() + ": " + item.error().reason() : null;
+                contexts.get(i).ack().settle(contexts.get(i).log(), error);
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Pending> contexts, Throwable failure) {
+            for (Pending pending : contexts) {
+                pending.ack().settle(pending.log(), failure.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.social.logging.sink;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Waits for server-side tasks such as an asynchronous {@code _reindex}. Polls {@code _tasks/<id>} without
+ * {@code wait_for_completion}: a long wait on the server answers with a timeout error rather than
+ * {@code completed=false}. An interrupted caller cancels the task, so nothing keeps running behind the next attempt.
+ */
+@Slf4j
+public final class ElasticsearchTasks {
+    private static final long POLL_MILLIS = 1000;
+
+    private ElasticsearchTasks() {
+    }
+
+    /**
+     * @return the reindex result, or null when the task reported none
+     * @throws IllegalStateException when the task failed or any document was rejected
+     */
+    public static ReindexResponse awaitReindex(ElasticsearchClient client, String task, String description) throws Exception {
+        GetTasksResponse result = await(client, task);
+        if (result.error() != null) {
+            throw new IllegalStateException(description + " failed: " + result.error().reason());
+        }
+        ReindexResponse response = result.response() != null ? result.response().to(ReindexResponse.class) : null;
+        if (response != null && !response.failures().isEmpty()) {
+            var first = response.failures().getFirst();
+            throw new IllegalStateException(description + " finished with " + response.failures().size() + " failures, first on "
+                    + first.id() + ": " + (first.cause() != null ? first.cause().reason() : first.status()));
+        }
+        return response;
+    }
+
+    public static GetTasksResponse await(ElasticsearchClient client, String task) throws Exception {
+        try {
+            while (true) {
+                GetTasksResponse result = client.tasks().get(g -> g.taskId(task));
+                if (result.completed()) {
+                    return result;
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            try {
+                client.tasks().cancel(c -> c.taskId(task));
+            } catch (Exception cancelFailure) {
+                log.warn("Cancelling task {} failed: {}", task, cancelFailure.getMessage());
+            }
+            throw e;
+        }
+    }
+}
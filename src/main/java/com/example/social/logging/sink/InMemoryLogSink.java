@@ -0,0 +1,58 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last {@code app.logging.memory.capacity} logs in the heap instead of sending them to
+ * Elasticsearch or ClickHouse, so the capture and dispatch path runs without any backing service
+ * (the {@code local} profile). Older logs are evicted; {@link #written()} counts all of them.
+ */
+@ConditionalOnProperty(prefix = "app.logging.sink.memory", name = "enabled", havingValue = "true")
+@Component
+public class InMemoryLogSink implements LogSink {
+    private final int capacity;
+    private final ArrayDeque<ApiLog> recent;
+    private final AtomicLong written = new AtomicLong();
+
+    public InMemoryLogSink(AppProperties props) {
+        this.capacity = Math.max(1, props.getLogging().getMemory().getCapacity());
+        this.recent = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void write(List<ApiLog> batch) {
+        synchronized (recent) {
+            for (ApiLog log : batch) {
+                if (recent.size() == capacity) {
+                    recent.pollFirst();
+                }
+                recent.addLast(log);
+            }
+        }
+        written.addAndGet(batch.size());
+    }
+
+    /** Oldest first. */
+    public List<ApiLog> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    public long written() {
+        return written.get();
+    }
+}
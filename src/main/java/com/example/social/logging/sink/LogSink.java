@@ -0,0 +1,15 @@
+package com.example.social.logging.sink;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.util.List;
+
+/**
+ * Destination of API log batches. Implementations are picked by {@link #name()}
+ * from {@code app.logging.sinks}; each gets its own {@link SinkDispatcher}.
+ */
+public interface LogSink {
+    String name();
+
+    void write(List<ApiLog> batch) throws Exception;
+}
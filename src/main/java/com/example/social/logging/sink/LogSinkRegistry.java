@@ -0,0 +1,55 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.logging.spool.LogSpools;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class LogSinkRegistry {
+    private final List<SinkDispatcher> dispatchers = new ArrayList<>();
+    private final AppProperties.Logging config;
+
+    public LogSinkRegistry(List<LogSink> sinks, LogSpools spools, AppProperties props, MeterRegistry registry) {
+        this.config = props.getLogging();
+        Map<String, LogSink> byName = sinks.stream().collect(Collectors.toMap(LogSink::name, Function.identity()));
+
+        for (String name : config.getSinks()) {
+            LogSink sink = byName.get(name);
+            if (sink == null) {
+                throw new IllegalStateException("Log sink '" + name + "' is unknown or not enabled (app.logging.sink." + name
+                        + ".enabled=true), available: " + byName.keySet());
+            }
+            var spool = spools.isEnabled() && !"noop".equals(name) ? spools.spool(name) : null;
+            dispatchers.add(new SinkDispatcher(sink, config.sinkSettings(name), spool, registry));
+        }
+        log.info("API log sinks enabled: {}", config.getSinks());
+    }
+
+    public void dispatch(List<ApiLog> batch) {
+        for (SinkDispatcher dispatcher : dispatchers) {
+            dispatcher.dispatch(batch);
+        }
+    }
+
+    public List<SinkDispatcher> dispatchers() {
+        return dispatchers;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (SinkDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown(config.getPipeline().getShutdownTimeoutMillis());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Appends one JSON document per line to {@code api-logs-yyyy-MM-dd.N.ndjson},
+ * rolling on date change or when the file exceeds {@code max-file-bytes}.
+ */
+@ConditionalOnProperty(prefix = "app.logging.sink.file", name = "enabled", havingValue = "true")
+@Component
+public class NdjsonFileLogSink implements LogSink {
+    private final AppProperties.Logging.File config;
+    private final JsonMapper jsonMapper;
+
+    private OutputStream out;
+    private LocalDate currentDate;
+    private int currentIndex;
+    private long currentBytes;
+
+    public NdjsonFileLogSink(AppProperties props, JsonMapper jsonMapper) {
+        this.config = props.getLogging().getFile();
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void write(List<ApiLog> batch) throws IOException {
+        for (ApiLog log : batch) {
+            byte[] line = jsonMapper.writeValueAsBytes(log);
+            rollIfNeeded();
+            out.write(line);
+            out.write('\n');
+            currentBytes += line.length + 1;
+        }
+        out.flush();
+    }
+
+    private void rollIfNeeded() throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (out != null && today.equals(currentDate) && currentBytes < config.getMaxFileBytes()) {
+            return;
+        }
+        if (out != null) {
+            out.close();
+        }
+        currentIndex = today.equals(currentDate) ? currentIndex + 1 : 0;
+        currentDate = today;
+
+        Path directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("api-logs-" + today + "." + currentIndex + ".ndjson");
+        currentBytes = Files.exists(file) ? Files.size(file) : 0;
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
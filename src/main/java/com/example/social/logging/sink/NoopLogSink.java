@@ -0,0 +1,18 @@
+package com.example.social.logging.sink;
+
+import com.example.social.domain.entity.ApiLog;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class NoopLogSink implements LogSink {
+    @Override
+    public String name() {
+        return "noop";
+    }
+
+    @Override
+    public void write(List<ApiLog> batch) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.social.logging.sink;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.util.List;
+
+/**
+ * Thrown by a {@link LogSink} when only part of a batch was rejected, so that
+ * only {@link #failed()} is spooled for replay instead of the whole batch.
+ */
+public class PartialWriteException extends Exception {
+    private final transient List<ApiLog> failed;
+
+    public PartialWriteException(String message, List<ApiLog> failed) {
+        super(message);
+        this.failed = List.copyOf(failed);
+    }
+
+    public List<ApiLog> failed() {
+        return failed;
+    }
+}
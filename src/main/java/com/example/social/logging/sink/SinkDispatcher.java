@@ -0,0 +1,168 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.logging.spool.LogSpool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one {@link LogSink} on its own bounded executor with batch size, timeout and circuit breaker,
+ * so a slow backend only ever backs up its own queue. Work it cannot take goes to the sink's spool.
+ * <p>
+ * {@code timeout-millis} bounds the wait in the queue: a chunk not started by then is spooled and never
+ * written from the queue. A started write is bounded by the sink's own client timeouts, since it cannot be
+ * abandoned without risking a second copy once the spool replays it.
+ */
+@Slf4j
+public class SinkDispatcher {
+    private final LogSink sink;
+    private final AppProperties.Logging.Sink config;
+    private final LogSpool spool;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker breaker;
+
+    private final Timer latency;
+    private final Counter written;
+    private final Counter errors;
+    private final Counter rejected;
+    private final Counter spooled;
+
+    public SinkDispatcher(LogSink sink, AppProperties.Logging.Sink config, LogSpool spool, MeterRegistry registry) {
+        this.sink = sink;
+        this.config = config;
+        this.spool = spool;
+        this.breaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenMillis());
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                r -> Thread.ofPlatform().name("log-sink-" + sink.name() + "-" + threadIndex.getAndIncrement()).daemon(true).unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        String name = sink.name();
+        this.latency = Timer.builder("apilog.sink.latency").tag("sink", name).register(registry);
+        this.written = registry.counter("apilog.sink.records", "sink", name);
+        this.errors = registry.counter("apilog.sink.errors", "sink", name);
+        this.rejected = registry.counter("apilog.sink.rejected", "sink", name);
+        this.spooled = registry.counter("apilog.sink.spooled", "sink", name);
+        Gauge.builder("apilog.sink.queue.depth", executor, e -> e.getQueue().size()).tag("sink", name).register(registry);
+        Gauge.builder("apilog.sink.circuit.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1).tag("sink", name).register(registry);
+    }
+
+    public String name() {
+        return sink.name();
+    }
+
+    public void dispatch(List<ApiLog> batch) {
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<ApiLog> chunk = List.copyOf(batch.subList(from, Math.min(from + batchSize, batch.size())));
+            if ((spool != null && spool.hasPending()) || !breaker.allowRequest()) {
+                spool(chunk);
+                continue;
+            }
+            // whoever claims the chunk first owns it: the write, or the timeout, which spools it instead
+            AtomicBoolean claimed = new AtomicBoolean();
+            try {
+                CompletableFuture.runAsync(() -> {
+                            if (claimed.compareAndSet(false, true)) {
+                                write(chunk);
+                            }
+                        }, executor)
+                        .whenComplete((ignored, error) -> {
+                            if (error != null) {
+                                onFailure(chunk, error);
+                            }
+                        });
+            } catch (RejectedExecutionException e) {
+                rejected.increment(chunk.size());
+                spool(chunk);
+                continue;
+            }
+            CompletableFuture.delayedExecutor(config.getTimeoutMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    onFailure(chunk, new TimeoutException("not started within " + config.getTimeoutMillis() + " ms"));
+                }
+            });
+        }
+    }
+
+    /**
+     * Synchronous write used by the spool replayer; honours the breaker and records the same metrics.
+     */
+    public boolean tryWrite(List<ApiLog> batch) {
+        if (!breaker.allowRequest()) {
+            return false;
+        }
+        try {
+            write(batch);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void write(List<ApiLog> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+            breaker.onSuccess();
+            written.increment(batch.size());
+        } catch (Exception e) {
+            breaker.onFailure();
+            errors.increment(batch.size());
+            throw new CompletionException(e);
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void onFailure(List<ApiLog> batch, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(error instanceof CompletionException)) {
+            breaker.onFailure();
+            errors.increment(batch.size());
+        }
+        log.warn("{} log batch of {} failed: {}", sink.name(), batch.size(), cause.toString());
+        spool(cause instanceof PartialWriteException partial ? partial.failed() : batch);
+    }
+
+    private void spool(List<ApiLog> batch) {
+        if (spool == null) {
+            return;
+        }
+        try {
+            spool.append(batch);
+            spooled.increment(batch.size());
+        } catch (Exception e) {
+            log.error("Spooling {} logs for {} failed, records lost: {}", batch.size(), sink.name(), e.getMessage());
+        }
+    }
+
+    public LogSpool spool() {
+        return spool;
+    }
+
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} sink did not drain within {} ms", sink.name(), timeoutMillis);
+        }
+    }
+}
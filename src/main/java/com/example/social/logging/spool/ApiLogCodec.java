@@ -0,0 +1,148 @@
+package com.example.social.logging.spool;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary form of {@link ApiLog} used by the spool segments.
+ * Strings are written as varint(length + 1) followed by UTF-8 bytes, 0 meaning null.
+ * Segments record the {@link #VERSION} they were written with, so older spools stay readable.
+ */
+public final class ApiLogCodec {
+    public static final short VERSION = 5;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private ApiLogCodec() {
+    }
+
+    public static byte[] encode(ApiLog log) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        writeString(out, log.getId());
+        writeLong(out, log.getTimestamp() == null ? NULL_TIMESTAMP : log.getTimestamp().toEpochMilli());
+        writeString(out, log.getHttpMethod());
+        writeString(out, log.getPath());
+        writeVarInt(out, log.getStatusCode());
+        writeLong(out, log.getDuration());
+        writeString(out, log.getRequestHeader());
+        writeString(out, log.getRequestBody());
+        writeLong(out, log.getRequestBodyLength());
+        out.write(log.isRequestBodyTruncated() ? 1 : 0);
+        writeString(out, log.getResponseHeader());
+        writeString(out, log.getResponseBody());
+        writeLong(out, log.getResponseBodyLength());
+        out.write(log.isResponseBodyTruncated() ? 1 : 0);
+        writeString(out, log.getUserId());
+        writeString(out, log.getClientIp());
+        writeString(out, log.getUserAgent());
+        writeLong(out, Double.doubleToRawLongBits(log.getSampleWeight()));
+        writeString(out, log.getRoute());
+        writeBytes(out, log.getRequestBodyLz4());
+        writeBytes(out, log.getResponseBodyLz4());
+        return out.toByteArray();
+    }
+
+    public static ApiLog decode(byte[] payload, short version) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        ApiLog log = new ApiLog();
+        log.setId(readString(in));
+        long timestamp = in.getLong();
+        log.setTimestamp(timestamp == NULL_TIMESTAMP ? null : Instant.ofEpochMilli(timestamp));
+        log.setHttpMethod(readString(in));
+        log.setPath(readString(in));
+        log.setStatusCode(readVarInt(in));
+        log.setDuration(in.getLong());
+        log.setRequestHeader(readString(in));
+        log.setRequestBody(readString(in));
+        if (version >= 2) {
+            log.setRequestBodyLength(in.getLong());
+            log.setRequestBodyTruncated(in.get() != 0);
+        }
+        log.setResponseHeader(readString(in));
+        log.setResponseBody(readString(in));
+        if (version >= 2) {
+            log.setResponseBodyLength(in.getLong());
+            log.setResponseBodyTruncated(in.get() != 0);
+        }
+        log.setUserId(readString(in));
+        log.setClientIp(readString(in));
+        log.setUserAgent(readString(in));
+        log.setSampleWeight(version >= 3 ? in.getDouble() : 1.0);
+        if (version >= 4) {
+            log.setRoute(readString(in));
+        }
+        if (version >= 5) {
+            log.setRequestBodyLz4(readBytes(in));
+            log.setResponseBodyLz4(readBytes(in));
+        }
+        return log;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] value) {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, value.length + 1);
+        out.write(value, 0, value.length);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        in.get(value);
+        return value;
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.social.logging.spool;
+
+import com.example.social.domain.entity.ApiLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead spool of one log sink. Records are appended to rolling segments and
+ * read back in order; acknowledged positions are checkpointed and fully consumed segments deleted.
+ */
+@Slf4j
+public class LogSpool implements Closeable {
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final String name;
+    private final Path directory;
+    private final int segmentSize;
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private SpoolSegment writer;
+    private SpoolSegment reader;
+    private long readSequence;
+    private int readOffset;
+
+    public LogSpool(String name, Path directory, int segmentSize) throws IOException {
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(p -> segments.put(sequenceOf(p), p));
+        }
+        if (!segments.isEmpty()) {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            writer = SpoolSegment.open(last.getValue(), last.getKey());
+        }
+        readCheckpoint();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public synchronized void append(List<ApiLog> logs) throws IOException {
+        for (ApiLog apiLog : logs) {
+            byte[] payload = ApiLogCodec.encode(apiLog);
+            if (!SpoolSegment.fits(segmentSize, payload)) {
+                log.warn("Spool '{}' skipped a record of {} bytes, larger than the segment size", name, payload.length);
+                continue;
+            }
+            if (writer == null || !writer.append(payload)) {
+                roll();
+                writer.append(payload);
+            }
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        if (writer == null) {
+            return false;
+        }
+        return readSequence < writer.sequence() || readOffset < writer.writePosition();
+    }
+
+    public synchronized SpoolBatch read(int max) throws IOException {
+        List<ApiLog> records = new ArrayList<>(Math.min(max, 1024));
+        long sequence = readSequence;
+        int offset = readOffset;
+
+        while (records.size() < max) {
+            SpoolSegment segment = segmentFor(sequence);
+            if (segment == null) {
+                break;
+            }
+            offset = segment.read(offset, records, max - records.size());
+            if (records.size() >= max || segment == writer) {
+                break;
+            }
+            Long next = segments.higherKey(sequence);
+            if (next == null) {
+                break;
+            }
+            sequence = next;
+            offset = SpoolSegment.HEADER_SIZE;
+        }
+        return new SpoolBatch(records, sequence, offset);
+    }
+
+    public synchronized void acknowledge(SpoolBatch batch) throws IOException {
+        readSequence = batch.sequence();
+        readOffset = batch.offset();
+        writeCheckpoint();
+
+        var consumed = new ArrayList<>(segments.headMap(readSequence, false).entrySet());
+        for (Map.Entry<Long, Path> entry : consumed) {
+            if (reader != null && reader.sequence() == entry.getKey()) {
+                reader.close();
+                reader = null;
+            }
+            Files.deleteIfExists(entry.getValue());
+            segments.remove(entry.getKey());
+        }
+    }
+
+    private SpoolSegment segmentFor(long sequence) throws IOException {
+        if (writer != null && writer.sequence() == sequence) {
+            return writer;
+        }
+        if (reader != null && reader.sequence() == sequence) {
+            return reader;
+        }
+        Path path = segments.get(sequence);
+        if (path == null) {
+            return null;
+        }
+        if (reader != null) {
+            reader.close();
+        }
+        reader = SpoolSegment.open(path, sequence);
+        return reader;
+    }
+
+    private void roll() throws IOException {
+        long sequence = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        if (writer != null) {
+            writer.force();
+            writer.close();
+        }
+        Path path = directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+        writer = SpoolSegment.create(path, sequence, segmentSize);
+        segments.put(sequence, path);
+        if (segments.size() == 1) {
+            readSequence = sequence;
+            readOffset = SpoolSegment.HEADER_SIZE;
+        }
+    }
+
+    private void readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            readSequence = in.getLong();
+            readOffset = in.getInt();
+        }
+        if (!segments.isEmpty() && readSequence < segments.firstKey()) {
+            readSequence = segments.firstKey();
+            readOffset = SpoolSegment.HEADER_SIZE;
+        }
+        readOffset = Math.max(readOffset, SpoolSegment.HEADER_SIZE);
+    }
+
+    private void writeCheckpoint() throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        out.putLong(readSequence).putInt(readOffset);
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(tmp, out.array());
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long sequenceOf(Path path) {
+        String file = path.getFileName().toString();
+        return Long.parseLong(file.substring(0, file.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+        if (writer != null) {
+            writer.force();
+            writer.close();
+            writer = null;
+        }
+    }
+
+    public record SpoolBatch(List<ApiLog> records, long sequence, int offset) {
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.social.logging.spool;
+
+import com.example.social.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class LogSpools {
+    private final AppProperties.Logging.Spool config;
+    private final Map<String, LogSpool> spools = new ConcurrentHashMap<>();
+
+    public LogSpools(AppProperties props) {
+        this.config = props.getLogging().getSpool();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public LogSpool spool(String sinkName) {
+        return spools.computeIfAbsent(sinkName, name -> {
+            try {
+                return new LogSpool(name, Path.of(config.getDirectory(), name), config.getSegmentSizeBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open spool for " + name, e);
+            }
+        });
+    }
+
+    public Collection<LogSpool> all() {
+        return spools.values();
+    }
+
+    @PreDestroy
+    public void close() {
+        spools.values().forEach(LogSpool::close);
+    }
+}
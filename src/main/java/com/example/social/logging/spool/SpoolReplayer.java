@@ -0,0 +1,58 @@
+package com.example.social.logging.spool;
+
+import com.example.social.config.AppProperties;
+import com.example.social.logging.sink.LogSinkRegistry;
+import com.example.social.logging.sink.SinkDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams spooled records back into their sink once it accepts writes again,
+ * limited to {@code replay-rate-per-second} so a recovering backend is not flooded.
+ */
+@Slf4j
+@Component
+public class SpoolReplayer {
+    private final LogSinkRegistry sinks;
+    private final AppProperties.Logging.Spool config;
+    private final MeterRegistry registry;
+
+    public SpoolReplayer(LogSinkRegistry sinks, AppProperties props, MeterRegistry registry) {
+        this.sinks = sinks;
+        this.config = props.getLogging().getSpool();
+        this.registry = registry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.logging.spool.replay-interval-millis:1000}")
+    public void replay() {
+        long budget = Math.max(1, config.getReplayRatePerSecond() * config.getReplayIntervalMillis() / 1000);
+        for (SinkDispatcher dispatcher : sinks.dispatchers()) {
+            if (dispatcher.spool() != null) {
+                replay(dispatcher, dispatcher.spool(), budget);
+            }
+        }
+    }
+
+    private void replay(SinkDispatcher dispatcher, LogSpool spool, long budget) {
+        long replayed = 0;
+        try {
+            while (replayed < budget && spool.hasPending()) {
+                int max = (int) Math.min(config.getReplayBatchSize(), budget - replayed);
+                LogSpool.SpoolBatch batch = spool.read(max);
+                if (batch.isEmpty() || !dispatcher.tryWrite(batch.records())) {
+                    break;
+                }
+                spool.acknowledge(batch);
+                replayed += batch.records().size();
+            }
+        } catch (Exception e) {
+            log.warn("Spool replay for '{}' failed: {}", spool.name(), e.getMessage());
+        }
+        if (replayed > 0) {
+            registry.counter("apilog.spool.replayed", "sink", spool.name()).increment(replayed);
+            log.info("Replayed {} spooled logs into {}", replayed, spool.name());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.social.logging.spool;
+
+import com.example.social.domain.entity.ApiLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * One append-only, memory-mapped spool file.
+ * Layout: [magic:int][version:short][reserved:short] then records of [length:int][payload].
+ * The length is written after the payload, so a torn write is never visible as a record.
+ */
+final class SpoolSegment implements Closeable {
+    static final int MAGIC = 0x414C5350;
+    static final int HEADER_SIZE = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final Arena arena;
+    private final MemorySegment mapped;
+    private final ByteBuffer buffer;
+    private short version = ApiLogCodec.VERSION;
+    private int writePosition;
+
+    private SpoolSegment(long sequence, Path path, Arena arena, MemorySegment mapped, int writePosition) {
+        this.sequence = sequence;
+        this.path = path;
+        this.arena = arena;
+        this.mapped = mapped;
+        this.buffer = mapped.asByteBuffer();
+        this.writePosition = writePosition;
+    }
+
+    static SpoolSegment create(Path path, long sequence, int size) throws IOException {
+        SpoolSegment segment = map(path, sequence, size, true);
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putShort(4, ApiLogCodec.VERSION);
+        return segment;
+    }
+
+    static SpoolSegment open(Path path, long sequence) throws IOException {
+        SpoolSegment segment = map(path, sequence, -1, false);
+        if (segment.buffer.getInt(0) != MAGIC) {
+            segment.close();
+            throw new IOException("Not a spool segment: " + path);
+        }
+        segment.version = segment.buffer.getShort(4);
+        if (segment.version < 1 || segment.version > ApiLogCodec.VERSION) {
+            segment.close();
+            throw new IOException("Unsupported spool segment version " + segment.version + " in " + path);
+        }
+        segment.writePosition = segment.scanEnd();
+        return segment;
+    }
+
+    private static SpoolSegment map(Path path, long sequence, int size, boolean create) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = create ? size : channel.size();
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, length, arena);
+            return new SpoolSegment(sequence, path, arena, mapped, HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private int scanEnd() {
+        int position = HEADER_SIZE;
+        while (position + Integer.BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > buffer.capacity()) {
+                break;
+            }
+            position += Integer.BYTES + length;
+        }
+        return position;
+    }
+
+    boolean append(byte[] payload) {
+        int end = writePosition + Integer.BYTES + payload.length;
+        if (end > buffer.capacity() || version != ApiLogCodec.VERSION) {
+            return false;
+        }
+        buffer.put(writePosition + Integer.BYTES, payload);
+        buffer.putInt(writePosition, payload.length);
+        writePosition = end;
+        return true;
+    }
+
+    /**
+     * Decodes up to {@code max} records starting at {@code offset} and returns the offset after the last one.
+     */
+    int read(int offset, List<ApiLog> target, int max) {
+        int position = offset;
+        int read = 0;
+        while (read < max && position < writePosition) {
+            int length = buffer.getInt(position);
+            byte[] payload = new byte[length];
+            buffer.get(position + Integer.BYTES, payload);
+            target.add(ApiLogCodec.decode(payload, version));
+            position += Integer.BYTES + length;
+            read++;
+        }
+        return position;
+    }
+
+    static boolean fits(int segmentSize, byte[] payload) {
+        return HEADER_SIZE + Integer.BYTES + payload.length <= segmentSize;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    void force() {
+        mapped.force();
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.social.runner;
+
+import com.example.social.config.AppProperties;
+import com.example.social.runner.analytics.AnalyticsCheck;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes a benchmark run as {@code <label>-<utc timestamp>.json} and {@code .csv} under
+ * {@code app.benchmark.output-directory} and logs a summary table. The JSON carries the run
+ * configuration, environment and cross-engine result checks so results from different releases can be compared.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BenchmarkReport {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JsonMapper jsonMapper;
+
+    public record Run(String label, Instant startedAt, Instant finishedAt, Map<String, Object> environment,
+                      AppProperties.Benchmark config, List<BenchmarkResult> results, List<AnalyticsCheck> checks) {
+    }
+
+    public Path write(AppProperties.Benchmark config, Instant startedAt, List<BenchmarkResult> results,
+                      List<AnalyticsCheck> checks) throws IOException {
+        String label = config.getLabel() == null || config.getLabel().isBlank() ? "run" : config.getLabel();
+        Run run = new Run(label, startedAt, Instant.now(), environment(), config, results, checks);
+
+        Path directory = Path.of(config.getOutputDirectory());
+        Files.createDirectories(directory);
+        String baseName = label + "-" + FILE_TIME.format(startedAt);
+        Path json = directory.resolve(baseName + ".json");
+        jsonMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), run);
+
+        List<String> lines = new ArrayList<>(results.size() + 1);
+        lines.add(BenchmarkResult.CSV_HEADER);
+        results.forEach(result -> lines.add(result.toCsv()));
+        Files.write(directory.resolve(baseName + ".csv"), lines, StandardCharsets.UTF_8);
+
+        logTable(results);
+        log.info("Benchmark results written to {} (.json/.csv)", directory.resolve(baseName));
+        return json;
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", Runtime.version().toString());
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        return environment;
+    }
+
+    private static void logTable(List<BenchmarkResult> results) {
+        String row = "| %-9s | %-20s | %7s | %4s | %10s | %10s | %10s | %-34s |";
+        log.info("##########################################################################################################################");
+        log.info(String.format(row, "Phase", "Target", "Batch", "Conc", "p50 ms", "p95 ms", "p99 ms", "Throughput (mean [95% CI])"));
+        log.info("--------------------------------------------------------------------------------------------------------------------------");
+        for (BenchmarkResult r : results) {
+            log.info(String.format(Locale.ROOT, row, r.phase(), r.target(),
+                    r.batchSize() > 0 ? String.valueOf(r.batchSize()) : "-", r.concurrency(),
+                    String.format(Locale.ROOT, "%.1f", r.latencyP50Millis()),
+                    String.format(Locale.ROOT, "%.1f", r.latencyP95Millis()),
+                    String.format(Locale.ROOT, "%.1f", r.latencyP99Millis()),
+                    String.format(Locale.ROOT, "%.0f [%.0f, %.0f] %s", r.throughputMean(), r.throughputCiLow(), r.throughputCiHigh(), r.throughputUnit())));
+        }
+        log.info("##########################################################################################################################");
+    }
+}
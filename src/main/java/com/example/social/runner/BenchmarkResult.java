@@ -0,0 +1,86 @@
+package com.example.social.runner;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Summary of one benchmark case. Latency percentiles are taken over every measured operation
+ * (nearest rank); throughput is averaged over measured iterations with a two-sided 95% Student-t interval.
+ */
+public record BenchmarkResult(
+        String phase,
+        String target,
+        int batchSize,
+        int concurrency,
+        int iterations,
+        long operations,
+        double latencyP50Millis,
+        double latencyP95Millis,
+        double latencyP99Millis,
+        double latencyMaxMillis,
+        double throughputMean,
+        double throughputCiLow,
+        double throughputCiHigh,
+        String throughputUnit
+) {
+    public static final String CSV_HEADER = "phase,target,batchSize,concurrency,iterations,operations,"
+            + "latencyP50Millis,latencyP95Millis,latencyP99Millis,latencyMaxMillis,"
+            + "throughputMean,throughputCiLow,throughputCiHigh,throughputUnit";
+
+    /** Two-sided 95% critical values of Student's t for 1..30 degrees of freedom. */
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    /**
+     * @param latencyNanos one entry per measured operation
+     * @param throughputs  one entry per measured iteration
+     */
+    public static BenchmarkResult of(String phase, String target, int batchSize, int concurrency,
+                                     long[] latencyNanos, double[] throughputs, String throughputUnit) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+
+        double mean = Arrays.stream(throughputs).average().orElse(0);
+        double halfWidth = 0;
+        if (throughputs.length > 1) {
+            double sumSquares = 0;
+            for (double value : throughputs) {
+                sumSquares += (value - mean) * (value - mean);
+            }
+            double stdDev = Math.sqrt(sumSquares / (throughputs.length - 1));
+            int df = throughputs.length - 1;
+            double t = df <= T_95.length ? T_95[df - 1] : 1.960;
+            halfWidth = t * stdDev / Math.sqrt(throughputs.length);
+        }
+
+        return new BenchmarkResult(phase, target, batchSize, concurrency, throughputs.length, sorted.length,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)), millis(percentile(sorted, 0.99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]),
+                mean, mean - halfWidth, mean + halfWidth, throughputUnit);
+    }
+
+    public String toCsv() {
+        return String.join(",", phase, target, String.valueOf(batchSize), String.valueOf(concurrency),
+                String.valueOf(iterations), String.valueOf(operations),
+                format(latencyP50Millis), format(latencyP95Millis), format(latencyP99Millis), format(latencyMaxMillis),
+                format(throughputMean), format(throughputCiLow), format(throughputCiHigh), throughputUnit);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -1,269 +1,335 @@
 package com.example.social.runner;
 
-import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.example.social.config.AppProperties;
 import com.example.social.domain.entity.ApiLog;
 import com.example.social.domain.entity.ApiLogRefined;
-import com.example.social.domain.repository.ApiLogRefinedRepository;
-import com.example.social.domain.repository.ApiLogRepository;
 import com.example.social.domain.repository.ClickHouseLogRepository;
+import com.example.social.domain.repository.ClickHouseRowBinaryLogRepository;
+import com.example.social.domain.repository.ElasticsearchRefinedLogRepository;
+import com.example.social.etl.ApiLogRefiner;
+import com.example.social.etl.ClickHouseRefinementEtl;
+import com.example.social.etl.EtlPipeline;
+import com.example.social.etl.EtlStats;
+import com.example.social.etl.EtlWriter;
+import com.example.social.etl.RefinementPushdown;
+import com.example.social.etl.SliceCheckpoint;
+import com.example.social.etl.SlicedPitReader;
+import com.example.social.logging.sink.ApiLogIndices;
+import com.example.social.logging.sink.ElasticsearchLogSink;
+import com.example.social.runner.analytics.AnalyticsCheck;
+import com.example.social.runner.analytics.AnalyticsQuery;
+import com.example.social.runner.analytics.AnalyticsQueryCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.SearchHitsIterator;
-import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.UUID;
-
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in backend benchmark suite ({@code app.benchmark.enabled}, e.g. via the {@code benchmark} profile).
+ * Every case runs {@code warmup-iterations} unrecorded and {@code iterations} measured iterations:
+ * <ul>
+ *   <li>insert: {@code records} {@link SyntheticLogGenerator} logs per iteration, streamed in batches into
+ *       Elasticsearch, ClickHouse JDBC and ClickHouse RowBinary for each batch size and concurrency level;
+ *       latency is per batch and memory stays bounded by the batches in flight; both ClickHouse paths start
+ *       from a truncated {@code api_logs}</li>
+ *   <li>aggregate: both engines are emptied and loaded with one identical dataset of {@code records} logs (also
+ *       before etl); every {@link AnalyticsQueryCatalog} query runs on both engines, results are checked for agreement,
+ *       then timed cold ({@code cold-runs}, caches dropped before each) and warm ({@code queries-per-iteration}
+ *       per iteration at each concurrency level)</li>
+ *   <li>etl: one full refinement run per iteration and target; latency is the whole run</li>
+ * </ul>
+ * Results go to {@link BenchmarkReport}. Stores are truncated and written to, so point the app at dedicated clusters.
+ */
 @Slf4j
 @Component
+@ConditionalOnProperty(prefix = "app.benchmark", name = "enabled", havingValue = "true")
 @RequiredArgsConstructor
 public class BenchmarkRunner implements CommandLineRunner {
-
-    private final ApiLogRepository apiLogRepository;
-    private final ApiLogRefinedRepository apiLogRefinedRepository;
+    private final ElasticsearchLogSink elasticsearchLogSink;
     private final ClickHouseLogRepository clickHouseRepository;
+    private final ClickHouseRowBinaryLogRepository clickHouseNativeRepository;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchRefinedLogRepository elasticsearchRefinedLogRepository;
+    private final ApiLogRefiner apiLogRefiner;
+    private final RefinementPushdown refinementPushdown;
+    private final ClickHouseRefinementEtl clickHouseRefinementEtl;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ApiLogIndices apiLogIndices;
+    private final BenchmarkReport benchmarkReport;
+    private final BenchmarkTargets benchmarkTargets;
+    private final AnalyticsQueryCatalog analyticsQueryCatalog;
+    private final ConfigurableApplicationContext applicationContext;
+    private final AppProperties appProperties;
+
+    /** Untimed preparation of operation {@code index} in {@code iteration} (negative while warming up). */
+    @FunctionalInterface
+    private interface Input<T> {
+        T prepare(int iteration, int index);
+    }
 
-    @Override
-    public void run(String... args) throws Exception {
-        log.info("=============================================================");
-        log.info("   ULTIMATE BENCHMARK: INSERT vs ETL vs AGGREGATION");
-        log.info("=============================================================");
-
-        int newRecordsToAdd = 1_000_000;
-        int batchSize = 100_000;
-
-        log.info(">> [SETUP] {} og data points are being prepared in RAM...", newRecordsToAdd);
-        List<ApiLog> hugeDataList = new ArrayList<>(newRecordsToAdd);
-        Random random = new Random();
-        String[] methods = {"GET", "POST", "PUT", "DELETE"};
-
-        for (int i = 0; i < newRecordsToAdd; i++) {
-            hugeDataList.add(ApiLog.builder()
-                    .id(UUID.randomUUID().toString())
-                    .timestamp(Instant.now())
-                    .httpMethod(methods[random.nextInt(methods.length)])
-                    .path("/api/test/" + i)
-                    .statusCode(200)
-                    .duration(random.nextInt(1000))
-                    .requestBody("Payload " + i)
-                    .responseBody("Response " + i)
-                    .userId("user-" + i)
-                    .clientIp("127.0.0.1")
-                    .userAgent("Bench/1.0")
-                    .build());
-        }
-        log.info(">> [SETUP] Completed.");
+    @FunctionalInterface
+    private interface Operation<T> {
+        void run(T input) throws Exception;
+    }
 
-        log.info("--- PHASE 1: INSERT PERFORMANCE ({} Records) ---", newRecordsToAdd);
+    private record Prepared<T>(T value, RuntimeException failure) {
+    }
 
-        // ELASTIC INSERT
-        long esInsertStart = System.currentTimeMillis();
-        for (int i = 0; i < newRecordsToAdd; i += batchSize) {
-            int end = Math.min(i + batchSize, newRecordsToAdd);
-            apiLogRepository.saveAll(hugeDataList.subList(i, end));
-            if ((i + batchSize) % 100_000 == 0) log.info("ES Insert: {}...", i + batchSize);
+    @Override
+    public void run(String... args) throws Exception {
+        AppProperties.Benchmark config = appProperties.getBenchmark();
+        Instant startedAt = Instant.now();
+        List<BenchmarkResult> results = new ArrayList<>();
+        log.info("Benchmark suite starting: phases={}, records={}, batchSizes={}, concurrency={}, warmup={}, iterations={}",
+                config.getPhases(), config.getRecords(), config.getBatchSizes(), config.getConcurrency(),
+                config.getWarmupIterations(), config.getIterations());
+
+        if (config.getPhases().contains("insert")) {
+            int insertCase = 0;
+            Instant end = Instant.now();
+            for (int batchSize : config.getBatchSizes()) {
+                for (int concurrency : config.getConcurrency()) {
+                    // every target of a case writes the same rows
+                    long caseSeed = config.getSeed() + 1_000_003L * insertCase++;
+                    results.add(insert("elasticsearch", caseSeed, end, batchSize, concurrency, elasticsearchLogSink::write));
+                    benchmarkTargets.clearClickHouse();
+                    results.add(insert("clickhouse-jdbc", caseSeed, end, batchSize, concurrency, clickHouseRepository::saveAll));
+                    benchmarkTargets.clearClickHouse();
+                    results.add(insert("clickhouse-rowbinary", caseSeed, end, batchSize, concurrency, clickHouseNativeRepository::saveAll));
+                }
+            }
         }
-        long esInsertDuration = System.currentTimeMillis() - esInsertStart;
-        log.info(">> Elastic Insert Finished: {} ms", esInsertDuration);
 
-        // CLICKHOUSE INSERT
-        clickHouseRepository.createRefinedTable();
-        long chInsertStart = System.currentTimeMillis();
-        for (int i = 0; i < newRecordsToAdd; i += batchSize) {
-            int end = Math.min(i + batchSize, newRecordsToAdd);
-            clickHouseRepository.saveAll(hugeDataList.subList(i, end));
-            if ((i + batchSize) % 100_000 == 0) log.info("CH Insert: {}...", i + batchSize);
+        if (config.getPhases().contains("aggregate") || config.getPhases().contains("etl")) {
+            loadSharedDataset();
         }
-        long chInsertDuration = System.currentTimeMillis() - chInsertStart;
-        log.info(">> ClickHouse Insert Finished: {} ms", chInsertDuration);
-
-        log.info("--- PHASE 2: AGGREGATION PERFORMANCE ---");
-
-        long esAggStart = System.currentTimeMillis();
-        Query aggQuery = NativeQuery.builder()
-                .withAggregation("byMethod", Aggregation.of(a -> a
-                        .terms(t -> t.field("httpMethod.keyword").size(10))
-                ))
-                .build();
-
-        SearchHits<ApiLog> esAggResult = elasticsearchOperations.search(aggQuery, ApiLog.class);
-
-        long esAggDuration = System.currentTimeMillis() - esAggStart;
-        log.info(">> Elastic Aggregation Finished: {} ms (Hit Count: {})", esAggDuration, esAggResult.getTotalHits());
-
-        long chAggStart = System.currentTimeMillis();
-        clickHouseRepository.runAggregationBenchmark();
-        long chAggDuration = System.currentTimeMillis() - chAggStart;
-        log.info(">> ClickHouse Aggregation Finished: {} ms", chAggDuration);
-
-        log.info("--- PHASE 3: ETL PERFORMANCE ---");
-
-        log.info(">> Elasticsearch ETL Starting...");
-        long esReadTime = 0, esProcessTime = 0, esWriteTime = 0;
-        long esTotalStart = System.currentTimeMillis();
-
-        Query streamQuery = Query.findAll();
-        streamQuery.setPageable(org.springframework.data.domain.PageRequest.of(0, 5000));
-
-        List<ApiLog> esBuffer = new ArrayList<>();
-        int esProcessedCount = 0;
-
-        try (SearchHitsIterator<ApiLog> stream = elasticsearchOperations.searchForStream(streamQuery, ApiLog.class)) {
-            long tStart = System.currentTimeMillis();
-            while (stream.hasNext()) {
-                SearchHit<ApiLog> hit = stream.next();
-                long tReadDone = System.currentTimeMillis();
-                esReadTime += (tReadDone - tStart);
-
-                esBuffer.add(hit.getContent());
-
-                if (esBuffer.size() >= 10_000) {
-                    long tProcStart = System.currentTimeMillis();
-                    List<ApiLogRefined> refinedLogs = processLogs(esBuffer);
-                    long tProcEnd = System.currentTimeMillis();
-                    esProcessTime += (tProcEnd - tProcStart);
 
-                    long tWriteStart = System.currentTimeMillis();
-                    apiLogRefinedRepository.saveAll(refinedLogs);
-                    esWriteTime += (System.currentTimeMillis() - tWriteStart);
-
-                    esProcessedCount += esBuffer.size();
-                    if(esProcessedCount % 200_000 == 0) log.info("ES ETL: {}...", esProcessedCount);
-                    esBuffer.clear();
+        List<AnalyticsCheck> checks = new ArrayList<>();
+        if (config.getPhases().contains("aggregate")) {
+            Instant to = Instant.now().plusSeconds(1);
+            AnalyticsQuery.Window window = new AnalyticsQuery.Window(to.minus(Duration.ofHours(config.getAnalytics().getWindowHours())), to);
+            for (AnalyticsQuery query : analyticsQueryCatalog.selected()) {
+                AnalyticsCheck check = AnalyticsCheck.compare(query, query.clickHouse().apply(window), query.elasticsearch().apply(window));
+                checks.add(check);
+                if (check.agreed()) {
+                    log.info("{}: engines agree on {} rows (max relative error {})", query.name(), check.clickHouseRows(), check.maxRelativeError());
+                } else {
+                    log.warn("{}: {} mismatches (clickhouse {} rows, elasticsearch {} rows), e.g. {}", query.name(),
+                            check.mismatches(), check.clickHouseRows(), check.elasticsearchRows(), check.examples());
                 }
-                tStart = System.currentTimeMillis();
-            }
-            if(!esBuffer.isEmpty()) {
-                long tProcStart = System.currentTimeMillis();
-                List<ApiLogRefined> refinedLogs = processLogs(esBuffer);
-                esProcessTime += (System.currentTimeMillis() - tProcStart);
 
-                long tWriteStart = System.currentTimeMillis();
-                apiLogRefinedRepository.saveAll(refinedLogs);
-                esWriteTime += (System.currentTimeMillis() - tWriteStart);
-                esProcessedCount += esBuffer.size();
+                results.add(cold("clickhouse/" + query.name(), analyticsQueryCatalog::dropClickHouseCaches, () -> query.clickHouse().apply(window)));
+                results.add(cold("elasticsearch/" + query.name(), analyticsQueryCatalog::dropElasticsearchCaches, () -> query.elasticsearch().apply(window)));
+                for (int concurrency : config.getConcurrency()) {
+                    results.add(measure("query-warm", "clickhouse/" + query.name(), 0, concurrency, config.getQueriesPerIteration(),
+                            config.getQueriesPerIteration(), "queries/s", (iteration, i) -> window, w -> query.clickHouse().apply(w)));
+                    results.add(measure("query-warm", "elasticsearch/" + query.name(), 0, concurrency, config.getQueriesPerIteration(),
+                            config.getQueriesPerIteration(), "queries/s", (iteration, i) -> window, w -> query.elasticsearch().apply(w)));
+                }
             }
         }
-        long esTotalDuration = System.currentTimeMillis() - esTotalStart;
-
-        log.info(">> ClickHouse ETL Starting...");
-        long chReadTime = 0, chProcessTime = 0, chWriteTime = 0;
-        long chTotalStart = System.currentTimeMillis();
 
-        long tStart = System.currentTimeMillis();
-        List<ApiLog> chRawLogs = clickHouseRepository.findAll();
-        chReadTime = (System.currentTimeMillis() - tStart);
-        log.info("CH: {} data entries were stored in memory.", chRawLogs.size());
+        if (config.getPhases().contains("etl")) {
+            results.add(etl("elasticsearch-jvm", this::refineElasticsearchInJvm));
+            results.add(etl("elasticsearch-pushdown", () -> refinementPushdown.elasticsearch(null, null)));
+            results.add(etl("clickhouse-jvm", () -> clickHouseRefinementEtl.run("clickhouse", null, null)));
+            results.add(etl("clickhouse-pushdown", () -> refinementPushdown.clickHouse(null, null)));
+        }
 
-        int chPageSize = 10_000;
-        for (int i = 0; i < chRawLogs.size(); i += chPageSize) {
-            int end = Math.min(i + chPageSize, chRawLogs.size());
-            List<ApiLog> batch = chRawLogs.subList(i, end);
+        benchmarkReport.write(config, startedAt, results, checks);
+        if (config.getAnalytics().isFailOnMismatch() && checks.stream().anyMatch(check -> !check.agreed())) {
+            throw new IllegalStateException("Analytics results differ between ClickHouse and Elasticsearch");
+        }
+        if (config.isExitOnFinish()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
 
-            long tProcStart = System.currentTimeMillis();
-            List<ApiLogRefined> refinedLogs = processLogs(batch);
-            chProcessTime += (System.currentTimeMillis() - tProcStart);
+    /** Serial runs, each preceded by {@code dropCaches}; latency and throughput are per run. */
+    private BenchmarkResult cold(String target, Runnable dropCaches, Runnable query) {
+        int runs = appProperties.getBenchmark().getAnalytics().getColdRuns();
+        long[] latencies = new long[runs];
+        double[] throughputs = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            dropCaches.run();
+            long start = System.nanoTime();
+            query.run();
+            latencies[i] = System.nanoTime() - start;
+            throughputs[i] = 1e9 / latencies[i];
+        }
+        return BenchmarkResult.of("query-cold", target, 0, 1, latencies, throughputs, "queries/s");
+    }
 
-            long tWriteStart = System.currentTimeMillis();
-            clickHouseRepository.saveRefinedAll(refinedLogs);
-            chWriteTime += (System.currentTimeMillis() - tWriteStart);
+    /**
+     * Streams {@code records} synthetic logs per iteration, generated just ahead of the writers. Iteration
+     * {@code i} uses {@code caseSeed + i}, so ids never repeat across passes of a case, and every target
+     * given the same {@code caseSeed} and {@code end} writes exactly the same rows.
+     */
+    private BenchmarkResult insert(String target, long caseSeed, Instant end, int batchSize, int concurrency, EtlWriter<ApiLog> writer) throws Exception {
+        AppProperties.Benchmark config = appProperties.getBenchmark();
+        long records = config.getRecords();
+        int batches = (int) ((records + batchSize - 1) / batchSize);
+        Map<Integer, SyntheticLogGenerator> generators = new ConcurrentHashMap<>();
+        return measure("insert", target, batchSize, concurrency, batches, records, "rows/s",
+                (iteration, i) -> generators
+                        .computeIfAbsent(iteration, it -> new SyntheticLogGenerator(config.getDataset(), caseSeed + it, records, end))
+                        .batch((long) i * batchSize, batchSize),
+                writer::write);
+    }
 
-            if ((i + chPageSize) % 200_000 == 0) log.info("CH ETL: {}...", i + chPageSize);
+    /**
+     * Empties both engines and writes the same {@code records} logs into each, so the analytics checks compare
+     * one dataset and both ETL runs refine the same rows. Untimed.
+     */
+    private void loadSharedDataset() throws Exception {
+        AppProperties.Benchmark config = appProperties.getBenchmark();
+        benchmarkTargets.clearElasticsearch();
+        benchmarkTargets.clearClickHouse();
+
+        SyntheticLogGenerator generator = new SyntheticLogGenerator(config.getDataset(), config.getSeed(), config.getRecords(), Instant.now());
+        int batchSize = config.getBatchSizes().stream().mapToInt(Integer::intValue).max().orElse(10_000);
+        for (long from = 0; from < generator.records(); from += batchSize) {
+            List<ApiLog> batch = generator.batch(from, batchSize);
+            elasticsearchLogSink.write(batch);
+            clickHouseNativeRepository.saveAll(batch);
         }
-        long chTotalDuration = System.currentTimeMillis() - chTotalStart;
+        elasticsearchOperations.indexOps(ApiLog.class).refresh();
+        log.info("Loaded the same {} logs into Elasticsearch and ClickHouse", generator.records());
+    }
 
-        printReport(newRecordsToAdd, esInsertDuration, chInsertDuration,
-                esAggDuration, chAggDuration,
-                esProcessedCount, esTotalDuration, esReadTime, esProcessTime, esWriteTime,
-                chRawLogs.size(), chTotalDuration, chReadTime, chProcessTime, chWriteTime);
+    private BenchmarkResult etl(String target, Callable<EtlStats> run) throws Exception {
+        AppProperties.Benchmark config = appProperties.getBenchmark();
+        for (int i = 0; i < config.getWarmupIterations(); i++) {
+            run.call();
+        }
+        long[] latencies = new long[config.getIterations()];
+        double[] throughputs = new double[config.getIterations()];
+        for (int i = 0; i < config.getIterations(); i++) {
+            long start = System.nanoTime();
+            EtlStats stats = run.call();
+            latencies[i] = System.nanoTime() - start;
+            throughputs[i] = stats.recordsWritten() * 1e9 / latencies[i];
+        }
+        log.info("etl {}: done", target);
+        return BenchmarkResult.of("etl", target, appProperties.getEtl().getBatchSize(), 1, latencies, throughputs, "rows/s");
     }
 
-    private List<ApiLogRefined> processLogs(List<ApiLog> rawLogs) {
-        List<ApiLogRefined> refinedList = new ArrayList<>(rawLogs.size());
-        for (ApiLog log : rawLogs) {
-            String userType = "BILINMIYOR";
-            try {
-                if (log.getUserId() != null && log.getUserId().contains("-")) {
-                    int idNum = Integer.parseInt(log.getUserId().split("-")[1]);
-                    userType = (idNum % 2 == 0) ? "CIFT" : "TEK";
+    /**
+     * Runs {@code operations} calls of {@code operation} per iteration on {@code concurrency} threads, timing each call.
+     * Inputs are prepared by one producer thread into a small bounded queue, so preparation overlaps the
+     * operations and stays out of their latency. Iteration throughput is {@code unitsPerIteration} over wall-clock time.
+     */
+    private <T> BenchmarkResult measure(String phase, String target, int batchSize, int concurrency, int operations,
+                                        long unitsPerIteration, String unit, Input<T> input, Operation<T> operation) throws Exception {
+        AppProperties.Benchmark config = appProperties.getBenchmark();
+        long[] latencies = new long[config.getIterations() * operations];
+        double[] throughputs = new double[config.getIterations()];
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int iteration = -config.getWarmupIterations(); iteration < config.getIterations(); iteration++) {
+                boolean measured = iteration >= 0;
+                int offset = measured ? iteration * operations : 0;
+                int current = iteration;
+                BlockingQueue<Prepared<T>> prepared = new ArrayBlockingQueue<>(2 * concurrency);
+                AtomicInteger next = new AtomicInteger();
+                long start = System.nanoTime();
+                Thread producer = Thread.ofPlatform().name("benchmark-input").start(() -> {
+                    try {
+                        for (int i = 0; i < operations; i++) {
+                            prepared.put(new Prepared<>(input.prepare(current, i), null));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        // one marker per worker; put, since a dropped marker leaves its worker blocked in take()
+                        try {
+                            for (int w = 0; w < concurrency; w++) {
+                                prepared.put(new Prepared<>(null, e));
+                            }
+                        } catch (InterruptedException interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+
+                List<Future<?>> workers = new ArrayList<>(concurrency);
+                for (int w = 0; w < concurrency; w++) {
+                    workers.add(executor.submit(() -> {
+                        for (int slot = next.getAndIncrement(); slot < operations; slot = next.getAndIncrement()) {
+                            Prepared<T> item = prepared.take();
+                            if (item.failure() != null) {
+                                throw item.failure();
+                            }
+                            long begin = System.nanoTime();
+                            operation.run(item.value());
+                            if (measured) {
+                                latencies[offset + slot] = System.nanoTime() - begin;
+                            }
+                        }
+                        return null;
+                    }));
                 }
-            } catch (Exception e) {}
-
-            String color = "Black";
-            long d = log.getDuration();
-            if (d < 200) color = "Green";
-            else if (d < 400) color = "Blue";
-            else if (d < 600) color = "Yellow";
-            else if (d < 800) color = "Orange";
-            else color = "Red";
-
-            refinedList.add(ApiLogRefined.builder()
-                    .id(UUID.randomUUID().toString())
-                    .originalLogId(log.getId())
-                    .userType(userType)
-                    .durationColor(color)
-                    .build());
+                try {
+                    for (Future<?> worker : workers) {
+                        worker.get();
+                    }
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    throw e;
+                } finally {
+                    producer.interrupt();
+                    producer.join();
+                }
+                if (measured) {
+                    throughputs[iteration] = unitsPerIteration * 1e9 / (System.nanoTime() - start);
+                }
+            }
         }
-        return refinedList;
+        BenchmarkResult result = BenchmarkResult.of(phase, target, batchSize, concurrency, latencies, throughputs, unit);
+        log.info("{} {} batch={} concurrency={}: p50={} ms, p99={} ms, {} {}", phase, target, batchSize, concurrency,
+                result.latencyP50Millis(), result.latencyP99Millis(), Math.round(result.throughputMean()), unit);
+        return result;
     }
 
-    private void printReport(int insertCount, long esInsert, long chInsert,
-                             long esAgg, long chAgg,
-                             int esEtlCount, long esEtlTotal, long esEtlRead, long esEtlProc, long esEtlWrite,
-                             int chEtlCount, long chEtlTotal, long chEtlRead, long chEtlProc, long chEtlWrite) {
-
-
-        log.info("\n");
-        log.info("##########################################################################################");
-        log.info("#                           DETAILED PERFORMANCE REPORT                                  #");
-        log.info("##########################################################################################");
-
-        log.info("--- 1. INSERT PERFORMANCE ({} New Records) ---", insertCount);
-        log.info(String.format("| %-15s | %-25s | %-20s |", "Technology", "Duration (ms / s)", "Speed (Row/Sec)"));
-        log.info("----------------------------------------------------------------------");
-        log.info(String.format("| %-15s | %-25s | %-20.0f |", "Elasticsearch",
-                String.format("%d / %.2f s", esInsert, esInsert / 1000.0),
-                (double)insertCount / (esInsert / 1000.0)));
-        log.info(String.format("| %-15s | %-25s | %-20.0f |", "ClickHouse",
-                String.format("%d / %.2f s", chInsert, chInsert / 1000.0),
-                (double)insertCount / (chInsert / 1000.0)));
-
-        log.info("--- 2. AGGREGATION PERFORMANCE (Group By + Avg) ---");
-        log.info(String.format("| %-15s | %-25s | %-20s |", "Technology", "Duration (ms / s)", "Status"));
-        log.info("----------------------------------------------------------------------");
-        log.info(String.format("| %-15s | %-25s | %-20s |", "Elasticsearch",
-                String.format("%d / %.3f s", esAgg, esAgg / 1000.0),
-                esAgg < chAgg ? "FASTER" : ""));
-        log.info(String.format("| %-15s | %-25s | %-20s |", "ClickHouse",
-                String.format("%d / %.3f s", chAgg, chAgg / 1000.0),
-                chAgg < esAgg ? "FASTER (Winner)" : ""));
-
-        log.info("--- 3. ETL PERFORMANCE (Full Table Scan & Transform) ---");
-        log.info(String.format("| %-12s | %-9s | %-17s | %-17s | %-17s | %-17s |", "Tech", "Count", "TOTAL (ms/s)", "READ (ms/s)", "PROC (ms/s)", "WRITE (ms/s)"));
-        log.info("--------------------------------------------------------------------------------------------------------------");
-
-        log.info(String.format("| %-12s | %-9d | %-17s | %-17s | %-17s | %-17s |", "Elastic", esEtlCount,
-                String.format("%d/%.1fs", esEtlTotal, esEtlTotal/1000.0),
-                String.format("%d/%.1fs", esEtlRead, esEtlRead/1000.0),
-                String.format("%d/%.1fs", esEtlProc, esEtlProc/1000.0),
-                String.format("%d/%.1fs", esEtlWrite, esEtlWrite/1000.0)));
-
-        log.info(String.format("| %-12s | %-9d | %-17s | %-17s | %-17s | %-17s |", "ClickHouse", chEtlCount,
-                String.format("%d/%.1fs", chEtlTotal, chEtlTotal/1000.0),
-                String.format("%d/%.1fs", chEtlRead, chEtlRead/1000.0),
-                String.format("%d/%.1fs", chEtlProc, chEtlProc/1000.0),
-                String.format("%d/%.1fs", chEtlWrite, chEtlWrite/1000.0)));
-
-        log.info("\n##########################################################################################\n");
+    private EtlStats refineElasticsearchInJvm() throws Exception {
+        AppProperties.Etl etl = appProperties.getEtl();
+        EtlPipeline<ApiLog, ApiLogRefined> pipeline = new EtlPipeline<>("elasticsearch", etl.getBatchSize(), etl.getQueueCapacity(), etl.getTransformThreads());
+        SliceCheckpoint checkpoint = new SliceCheckpoint(Path.of(etl.getCheckpointDirectory(), "benchmark-es-refine.slices"));
+        SlicedPitReader<ApiLogRefiner.Source, ApiLog> reader = SlicedPitReader.<ApiLogRefiner.Source, ApiLog>builder()
+                .client(elasticsearchClient)
+                .index(apiLogIndices.alias())
+                .documentType(ApiLogRefiner.Source.class)
+                .includes(ApiLogRefiner.SOURCE_FIELDS)
+                .mapper((id, source) -> source.toApiLog(id))
+                .slices(etl.getSlices())
+                .pageSize(etl.getPageSize())
+                .keepAlive(etl.getPitKeepAlive())
+                .checkpoint(checkpoint)
+                .inFlightRecords(pipeline.maxInFlightRecords())
+                .build();
+        EtlStats stats = pipeline.run(reader, apiLogRefiner::refine, elasticsearchRefinedLogRepository::saveAll);
+        checkpoint.clear();
+        return stats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.example.social.runner;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.example.social.config.AppProperties;
+import com.example.social.logging.sink.ApiLogIndices;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Empties the stores the benchmark writes into, so each case starts from the same state instead of
+ * measuring against whatever earlier cases left behind. Destructive: only for dedicated benchmark clusters.
+ */
+@Slf4j
+@Component
+public class BenchmarkTargets {
+    private static final List<String> CLICKHOUSE_TABLES = List.of("api_logs", "api_logs_route_1m", "api_logs_route_1h");
+
+    private final JdbcTemplate clickHouse;
+    private final String database;
+    private final ElasticsearchClient elasticsearch;
+    private final ApiLogIndices indices;
+
+    public BenchmarkTargets(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate clickHouse, AppProperties props,
+                            ElasticsearchClient elasticsearch, ApiLogIndices indices) {
+        this.clickHouse = clickHouse;
+        this.database = props.getClickhouse().getDatabase();
+        this.elasticsearch = elasticsearch;
+        this.indices = indices;
+    }
+
+    /** Truncates {@code api_logs} and the rollups its materialized views feed. */
+    public void clearClickHouse() {
+        for (String table : CLICKHOUSE_TABLES) {
+            clickHouse.execute("TRUNCATE TABLE IF EXISTS " + database + "." + table);
+        }
+        log.info("Truncated ClickHouse {} in {}", CLICKHOUSE_TABLES, database);
+    }
+
+    /** Deletes the daily API log indices by name, since wildcard deletes are refused by default. */
+    public void clearElasticsearch() throws IOException {
+        String pattern = indices.alias() + "-*";
+        List<String> daily = List.copyOf(elasticsearch.indices().get(g -> g.index(pattern).allowNoIndices(true)).indices().keySet());
+        if (!daily.isEmpty()) {
+            elasticsearch.indices().delete(d -> d.index(daily));
+        }
+        log.info("Deleted {} Elasticsearch indices matching {}", daily.size(), pattern);
+    }
+}
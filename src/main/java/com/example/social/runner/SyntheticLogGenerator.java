@@ -0,0 +1,233 @@
+package com.example.social.runner;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic API logs. Record {@code i} depends only on the seed and {@code i}, so batches
+ * can be generated lazily, in any order and on any thread, and a run is reproducible from its seed.
+ * <ul>
+ *   <li>routes: the application's own endpoints with Zipfian popularity, ids drawn from bounded pools</li>
+ *   <li>users: a bounded population with Zipfian activity; unauthenticated routes carry no user</li>
+ *   <li>status: mostly 2xx, with 4xx/5xx at {@code error-rate} (5xx are a fifth of errors)</li>
+ *   <li>latency: log-normal around a per-route median, heavier for server errors</li>
+ *   <li>timestamps: non-decreasing over {@code span-hours}, denser around {@code peak-hour-utc}</li>
+ * </ul>
+ */
+public class SyntheticLogGenerator {
+    private static final int MAX_POST_ID = 1_000_000;
+    private static final int MAX_COMMENT_ID = 5_000_000;
+    private static final double DAY_SECONDS = 86_400;
+    private static final double K = 2 * Math.PI / DAY_SECONDS;
+
+    private record Route(String method, String template, int okStatus, long medianMillis, boolean authenticated, String body) {
+    }
+
+    /** Ordered by popularity rank. */
+    private static final Route[] ROUTES = {
+            new Route("GET", "/api/posts", 200, 45, true, null),
+            new Route("GET", "/api/posts/{id}", 200, 25, true, null),
+            new Route("POST", "/api/posts/{id}/view", 204, 8, true, null),
+            new Route("GET", "/api/posts/{id}/comments", 200, 20, true, null),
+            new Route("POST", "/api/posts/{id}/likes", 200, 12, true, null),
+            new Route("GET", "/api/auth/me", 200, 6, true, null),
+            new Route("GET", "/api/users/{id}", 200, 10, true, null),
+            new Route("POST", "/api/posts/{id}/comments", 200, 18, true, "{\"content\":\"%s\"}"),
+            new Route("DELETE", "/api/posts/{id}/likes", 204, 12, true, null),
+            new Route("POST", "/api/auth/login", 200, 120, false, "{\"username\":\"user%s\",\"password\":\"<redacted>\"}"),
+            new Route("POST", "/api/posts", 201, 180, true, null),
+            new Route("PUT", "/api/posts/{id}", 200, 150, true, null),
+            new Route("POST", "/api/auth/logout", 204, 9, true, null),
+            new Route("POST", "/api/auth/signup", 201, 130, false, "{\"username\":\"user%s\",\"password\":\"<redacted>\"}"),
+            new Route("DELETE", "/api/comments/{id}", 204, 14, true, null),
+            new Route("DELETE", "/api/posts/{id}", 204, 22, true, null),
+            new Route("PUT", "/api/users/me/password", 204, 125, true, "{\"oldPassword\":\"<redacted>\",\"newPassword\":\"<redacted>\"}"),
+            new Route("DELETE", "/api/users/me", 204, 30, true, null),
+            new Route("GET", "/api/admin/stats/routes", 200, 250, true, null),
+            new Route("DELETE", "/api/admin/users/{id}", 204, 28, true, null),
+    };
+
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 18_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148",
+            "Mozilla/5.0 (Linux; Android 15; Pixel 9) AppleWebKit/537.36 Chrome/130.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/130.0 Safari/537.36",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_6) AppleWebKit/605.1.15 Version/18.0 Safari/605.1.15",
+            "okhttp/4.12.0",
+            "PostmanRuntime/7.42.0",
+    };
+    private static final double[] USER_AGENT_CDF = cdf(new double[]{0.35, 0.30, 0.18, 0.10, 0.05, 0.02});
+
+    private static final int[] CLIENT_ERRORS = {400, 401, 403, 404, 404, 409, 429};
+    private static final int[] SERVER_ERRORS = {500, 500, 502, 503, 504};
+
+    private final long seed;
+    private final long records;
+    private final double errorRate;
+    private final double sigma;
+    private final double[] routeCdf;
+    private final double[] userCdf;
+
+    private final Instant start;
+    private final double spanSeconds;
+    private final double amplitude;
+    private final double startPhase;
+    private final double totalIntensity;
+
+    public SyntheticLogGenerator(AppProperties.Benchmark.Dataset config, long seed, long records, Instant end) {
+        this.seed = seed;
+        this.records = records;
+        this.errorRate = config.getErrorRate();
+        this.sigma = config.getLatencySigma();
+        this.routeCdf = cdf(zipfWeights(ROUTES.length, config.getZipfExponent()));
+        this.userCdf = cdf(zipfWeights(config.getUsers(), config.getZipfExponent()));
+        this.spanSeconds = Duration.ofHours(config.getSpanHours()).toSeconds();
+        this.start = end.minusSeconds((long) spanSeconds);
+        this.amplitude = Math.max(0, Math.min(0.95, config.getDiurnalAmplitude()));
+        this.startPhase = Math.floorMod(start.getEpochSecond(), (long) DAY_SECONDS) - config.getPeakHourUtc() * 3600.0;
+        this.totalIntensity = cumulativeIntensity(spanSeconds);
+    }
+
+    public long records() {
+        return records;
+    }
+
+    /** Records {@code [from, from + size)}, clipped to {@link #records()}. */
+    public List<ApiLog> batch(long from, int size) {
+        int count = (int) Math.max(0, Math.min(size, records - from));
+        List<ApiLog> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(record(from + i));
+        }
+        return batch;
+    }
+
+    public ApiLog record(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+        Route route = ROUTES[sample(routeCdf, random.nextDouble())];
+        int user = sample(userCdf, random.nextDouble());
+        boolean anonymous = !route.authenticated();
+
+        int status = status(route, random);
+        double median = route.medianMillis() * (status >= 500 ? 4 : status >= 400 ? 0.5 : 1);
+        long duration = Math.max(1, Math.round(median * Math.exp(sigma * gaussian(random))));
+
+        String id = Integer.toString(route.template().startsWith("/api/comments")
+                ? 1 + random.nextInt(MAX_COMMENT_ID)
+                : 1 + (int) Math.min(MAX_POST_ID - 1, Math.floor(Math.pow(random.nextDouble(), 3) * MAX_POST_ID)));
+        String path = route.template().replace("{id}", id);
+        String body = route.body() == null ? null : route.body().formatted(route.body().contains("content") ? "comment " + index : String.valueOf(user));
+        long bodyLength = body == null ? 0 : body.length();
+        String userId = anonymous ? null : "user-" + user;
+
+        return ApiLog.builder()
+                .id(new UUID((random.nextLong() & ~0xF000L) | 0x4000L, (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L).toString())
+                .timestamp(timestamp(index))
+                .httpMethod(route.method())
+                .path(path)
+                .route(route.template())
+                .statusCode(status)
+                .duration(duration)
+                .requestHeader("{content-type=application/json" + (anonymous ? "" : ", authorization=<redacted>") + "}")
+                .requestBody(body)
+                .requestBodyLength(bodyLength)
+                .responseHeader("{content-type=application/json}")
+                .responseBody(status >= 400 ? "{\"status\":" + status + ",\"error\":\"synthetic\"}" : null)
+                .userId(userId)
+                .clientIp(clientIp(anonymous ? random.nextInt() : user))
+                .userAgent(USER_AGENTS[sample(USER_AGENT_CDF, random.nextDouble())])
+                .sampleWeight(1.0)
+                .build();
+    }
+
+    private int status(Route route, SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll >= errorRate) {
+            return route.okStatus();
+        }
+        return roll < errorRate * 0.2
+                ? SERVER_ERRORS[random.nextInt(SERVER_ERRORS.length)]
+                : CLIENT_ERRORS[random.nextInt(CLIENT_ERRORS.length)];
+    }
+
+    /**
+     * Inverts the cumulative intensity of {@code 1 + A cos(2π(t - peak) / day)} so that record {@code index}
+     * lands at its share of the total traffic: timestamps never decrease and bunch up around the peak hour.
+     */
+    private Instant timestamp(long index) {
+        if (records <= 1) {
+            return start.plusSeconds((long) spanSeconds);
+        }
+        double target = totalIntensity * index / (records - 1);
+        double t = target;
+        for (int i = 0; i < 8; i++) {
+            double error = cumulativeIntensity(t) - target;
+            t -= error / intensity(t);
+            t = Math.max(0, Math.min(spanSeconds, t));
+            if (Math.abs(error) < 1e-3) {
+                break;
+            }
+        }
+        return start.plusNanos((long) (t * 1e9));
+    }
+
+    /** Relative request rate {@code t} seconds after {@code start}. */
+    private double intensity(double t) {
+        return 1 + amplitude * Math.cos(K * (t + startPhase));
+    }
+
+    private double cumulativeIntensity(double t) {
+        return t + amplitude / K * (Math.sin(K * (t + startPhase)) - Math.sin(K * startPhase));
+    }
+
+    private static String clientIp(int key) {
+        int h = (int) mix(key);
+        return "10." + ((h >>> 16) & 0xFF) + "." + ((h >>> 8) & 0xFF) + "." + (1 + (h & 0xFF) % 254);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static double[] zipfWeights(int n, double exponent) {
+        double[] weights = new double[Math.max(1, n)];
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int i = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    /** SplitMix64 finaliser. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
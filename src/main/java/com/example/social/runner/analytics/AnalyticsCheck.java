@@ -0,0 +1,54 @@
+package com.example.social.runner.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeSet;
+
+/**
+ * Outcome of comparing one {@link AnalyticsQuery} across engines: keys missing on either side and
+ * values outside tolerance count as mismatches; up to ten are kept as examples.
+ */
+public record AnalyticsCheck(
+        String query,
+        int clickHouseRows,
+        int elasticsearchRows,
+        int mismatches,
+        double maxRelativeError,
+        boolean agreed,
+        List<String> examples
+) {
+    private static final int MAX_EXAMPLES = 10;
+
+    public static AnalyticsCheck compare(AnalyticsQuery query, SortedMap<String, Double> clickHouse, SortedMap<String, Double> elasticsearch) {
+        TreeSet<String> keys = new TreeSet<>(clickHouse.keySet());
+        keys.addAll(elasticsearch.keySet());
+
+        int mismatches = 0;
+        double maxRelativeError = 0;
+        List<String> examples = new ArrayList<>();
+        for (String key : keys) {
+            Double ch = clickHouse.get(key);
+            Double es = elasticsearch.get(key);
+            boolean ok;
+            if (ch == null || es == null) {
+                ok = false;
+            } else {
+                double diff = Math.abs(ch - es);
+                double relative = diff / Math.max(Math.abs(ch), Math.abs(es));
+                if (Double.isFinite(relative)) {
+                    maxRelativeError = Math.max(maxRelativeError, relative);
+                }
+                ok = diff <= query.absoluteTolerance() || relative <= query.relativeTolerance();
+            }
+            if (!ok) {
+                mismatches++;
+                if (examples.size() < MAX_EXAMPLES) {
+                    examples.add(key + ": clickhouse=" + ch + ", elasticsearch=" + es);
+                }
+            }
+        }
+        return new AnalyticsCheck(query.name(), clickHouse.size(), elasticsearch.size(), mismatches, maxRelativeError,
+                mismatches == 0 && !keys.isEmpty(), examples);
+    }
+}
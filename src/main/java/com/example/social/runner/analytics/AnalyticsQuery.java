@@ -0,0 +1,23 @@
+package com.example.social.runner.analytics;
+
+import java.time.Instant;
+import java.util.SortedMap;
+import java.util.function.Function;
+
+/**
+ * One analytical question answered by both engines. Each side returns its rows flattened to
+ * {@code key -> value} (e.g. {@code "/api/posts|1730600100000" -> 87.0}) so results can be compared
+ * key by key; values agree when within {@code absoluteTolerance} or {@code relativeTolerance}.
+ */
+public record AnalyticsQuery(
+        String name,
+        String description,
+        double relativeTolerance,
+        double absoluteTolerance,
+        Function<Window, SortedMap<String, Double>> clickHouse,
+        Function<Window, SortedMap<String, Double>> elasticsearch
+) {
+    /** {@code from <= timestamp < to}. */
+    public record Window(Instant from, Instant to) {
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.social.runner.analytics;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.ArrayPercentilesItem;
+import co.elastic.clients.elasticsearch._types.aggregations.DateHistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.util.NamedValue;
+import com.example.social.config.AppProperties;
+import com.example.social.logging.sink.ApiLogIndices;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Representative analytical queries over {@code api_logs}, each written natively for ClickHouse and
+ * Elasticsearch so that both compute the same thing. Counts are sample-weighted on both sides; latency
+ * percentiles are exact in ClickHouse and TDigest in Elasticsearch, hence their tolerance, and only
+ * buckets with at least {@code min-bucket-docs} requests are compared. Also clears engine caches for cold runs.
+ */
+@Slf4j
+@Component
+public class AnalyticsQueryCatalog {
+    private static final long FIVE_MINUTES_MILLIS = 300_000;
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String apiLogs;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ApiLogIndices apiLogIndices;
+    private final AppProperties.Benchmark.Analytics config;
+
+    public AnalyticsQueryCatalog(@Qualifier("clickHouseJdbcTemplate") JdbcTemplate jdbcTemplate,
+                                 ElasticsearchClient elasticsearchClient,
+                                 ApiLogIndices apiLogIndices,
+                                 AppProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.apiLogs = props.getClickhouse().getDatabase() + ".api_logs";
+        this.elasticsearchClient = elasticsearchClient;
+        this.apiLogIndices = apiLogIndices;
+        this.config = props.getBenchmark().getAnalytics();
+    }
+
+    /** The configured subset of {@link #all()}; an empty {@code app.benchmark.analytics.queries} selects every query. */
+    public List<AnalyticsQuery> selected() {
+        List<String> names = config.getQueries();
+        return names == null || names.isEmpty()
+                ? all()
+                : all().stream().filter(query -> names.contains(query.name())).toList();
+    }
+
+    public List<AnalyticsQuery> all() {
+        return List.of(
+                new AnalyticsQuery("requests_by_method",
+                        "Weighted request count and weighted mean latency per HTTP method",
+                        1e-9, 1e-6, this::requestsByMethodClickHouse, this::requestsByMethodElasticsearch),
+                new AnalyticsQuery("p95_latency_by_route_5m",
+                        "p95 latency per route per 5-minute bucket",
+                        0.05, 2.0, this::p95ByRouteClickHouse, this::p95ByRouteElasticsearch),
+                new AnalyticsQuery("top_slow_users",
+                        "Users with the highest mean latency among those with enough requests",
+                        1e-9, 1e-6, this::topSlowUsersClickHouse, this::topSlowUsersElasticsearch),
+                new AnalyticsQuery("error_rate_by_hour",
+                        "Weighted share of 5xx responses per hour",
+                        1e-9, 1e-9, this::errorRateClickHouse, this::errorRateElasticsearch),
+                new AnalyticsQuery("status_class_histogram",
+                        "Weighted requests per status class (2xx, 3xx, 4xx, 5xx)",
+                        1e-9, 1e-6, this::statusClassesClickHouse, this::statusClassesElasticsearch),
+                new AnalyticsQuery("distinct_users_by_hour",
+                        "Distinct authenticated users per hour (HyperLogLog in Elasticsearch)",
+                        0.02, 1.0, this::distinctUsersClickHouse, this::distinctUsersElasticsearch));
+    }
+
+    /** Best effort: drops the caches each engine can drop on request. The OS page cache stays warm. */
+    public void dropClickHouseCaches() {
+        for (String statement : List.of("SYSTEM DROP MARK CACHE", "SYSTEM DROP UNCOMPRESSED CACHE", "SYSTEM DROP QUERY CACHE")) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                log.debug("ClickHouse '{}' failed: {}", statement, e.getMessage());
+            }
+        }
+    }
+
+    public void dropElasticsearchCaches() {
+        try {
+            elasticsearchClient.indices().clearCache(c -> c.index(apiLogIndices.alias()).query(true).request(true).fielddata(true));
+        } catch (Exception e) {
+            log.debug("Elasticsearch cache clear failed: {}", e.getMessage());
+        }
+    }
+
+    // ---- requests_by_method
+
+    private SortedMap<String, Double> requestsByMethodClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT httpMethod, sum(sampleWeight) AS requests, sum(duration * sampleWeight) / sum(sampleWeight) AS avgDuration
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ?
+            GROUP BY httpMethod
+        """.formatted(apiLogs), rs -> {
+            rows.put(rs.getString("httpMethod") + "|requests", rs.getDouble("requests"));
+            rows.put(rs.getString("httpMethod") + "|avgDuration", rs.getDouble("avgDuration"));
+        }, Timestamp.from(window.from()), Timestamp.from(window.to()));
+        return rows;
+    }
+
+    private SortedMap<String, Double> requestsByMethodElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byMethod", Aggregation.of(a -> a
+                .terms(t -> t.field("httpMethod").size(100))
+                .aggregations("requests", weightSum())
+                .aggregations("avgDuration", Aggregation.of(w -> w.weightedAvg(v -> v
+                        .value(f -> f.field("duration"))
+                        .weight(f -> f.field("sampleWeight"))))))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (StringTermsBucket bucket : aggregations.get("byMethod").sterms().buckets().array()) {
+            String method = bucket.key().stringValue();
+            rows.put(method + "|requests", bucket.aggregations().get("requests").sum().value());
+            rows.put(method + "|avgDuration", value(bucket.aggregations().get("avgDuration").weightedAvg().value()));
+        }
+        return rows;
+    }
+
+    // ---- p95_latency_by_route_5m
+
+    private SortedMap<String, Double> p95ByRouteClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT route, intDiv(toUnixTimestamp64Milli(`timestamp`), ?) * ? AS bucket,
+                   quantileExactInclusive(0.95)(duration) AS p95
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ? AND route != ''
+            GROUP BY route, bucket
+            HAVING count() >= ?
+        """.formatted(apiLogs), rs -> {
+            rows.put(rs.getString("route") + "|" + rs.getLong("bucket"), rs.getDouble("p95"));
+        }, FIVE_MINUTES_MILLIS, FIVE_MINUTES_MILLIS, Timestamp.from(window.from()), Timestamp.from(window.to()), config.getMinBucketDocs());
+        return rows;
+    }
+
+    private SortedMap<String, Double> p95ByRouteElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byRoute", Aggregation.of(a -> a
+                .terms(t -> t.field("route").size(10_000))
+                .aggregations("by5m", Aggregation.of(h -> h
+                        .dateHistogram(d -> d.field("timestamp").fixedInterval(i -> i.time("5m")).minDocCount(config.getMinBucketDocs()))
+                        .aggregations("p95", Aggregation.of(p -> p.percentiles(q -> q.field("duration").percents(95.0).keyed(false)))))))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (StringTermsBucket route : aggregations.get("byRoute").sterms().buckets().array()) {
+            for (DateHistogramBucket bucket : route.aggregations().get("by5m").dateHistogram().buckets().array()) {
+                List<ArrayPercentilesItem> percentiles = bucket.aggregations().get("p95").tdigestPercentiles().values().array();
+                if (!percentiles.isEmpty() && percentiles.get(0).value() != null) {
+                    rows.put(route.key().stringValue() + "|" + bucket.key(), percentiles.get(0).value());
+                }
+            }
+        }
+        return rows;
+    }
+
+    // ---- top_slow_users
+
+    private SortedMap<String, Double> topSlowUsersClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT userId, avg(duration) AS avgDuration
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ? AND userId != ''
+            GROUP BY userId
+            HAVING count() >= ?
+            ORDER BY avgDuration DESC, userId
+            LIMIT ?
+        """.formatted(apiLogs), rs -> {
+            rows.put(rs.getString("userId"), rs.getDouble("avgDuration"));
+        }, Timestamp.from(window.from()), Timestamp.from(window.to()), config.getMinUserRequests(), config.getTopUsers());
+        return rows;
+    }
+
+    /** Ordering terms by a sub-aggregation is exact on a single shard and approximate across shards. */
+    private SortedMap<String, Double> topSlowUsersElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byUser", Aggregation.of(a -> a
+                .terms(t -> t.field("userId")
+                        .size(config.getTopUsers())
+                        .minDocCount(config.getMinUserRequests())
+                        .order(List.of(NamedValue.of("avgDuration", SortOrder.Desc), NamedValue.of("_key", SortOrder.Asc))))
+                .aggregations("avgDuration", Aggregation.of(v -> v.avg(f -> f.field("duration")))))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (StringTermsBucket bucket : aggregations.get("byUser").sterms().buckets().array()) {
+            rows.put(bucket.key().stringValue(), value(bucket.aggregations().get("avgDuration").avg().value()));
+        }
+        return rows;
+    }
+
+    // ---- error_rate_by_hour
+
+    private SortedMap<String, Double> errorRateClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT intDiv(toUnixTimestamp64Milli(`timestamp`), ?) * ? AS bucket,
+                   sumIf(sampleWeight, statusCode >= 500) / sum(sampleWeight) AS errorRate
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ?
+            GROUP BY bucket
+        """.formatted(apiLogs), rs -> {
+            rows.put(String.valueOf(rs.getLong("bucket")), rs.getDouble("errorRate"));
+        }, HOUR_MILLIS, HOUR_MILLIS, Timestamp.from(window.from()), Timestamp.from(window.to()));
+        return rows;
+    }
+
+    private SortedMap<String, Double> errorRateElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byHour", Aggregation.of(a -> a
+                .dateHistogram(d -> d.field("timestamp").fixedInterval(i -> i.time("1h")).minDocCount(1))
+                .aggregations("requests", weightSum())
+                .aggregations("errors", Aggregation.of(f -> f
+                        .filter(q -> q.range(r -> r.number(n -> n.field("statusCode").gte(500.0))))
+                        .aggregations("requests", weightSum()))))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (DateHistogramBucket bucket : aggregations.get("byHour").dateHistogram().buckets().array()) {
+            double requests = bucket.aggregations().get("requests").sum().value();
+            double errors = bucket.aggregations().get("errors").filter().aggregations().get("requests").sum().value();
+            rows.put(String.valueOf(bucket.key()), requests == 0 ? 0 : errors / requests);
+        }
+        return rows;
+    }
+
+    // ---- status_class_histogram
+
+    private SortedMap<String, Double> statusClassesClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT intDiv(statusCode, 100) AS statusClass, sum(sampleWeight) AS requests
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ?
+            GROUP BY statusClass
+        """.formatted(apiLogs), rs -> {
+            rows.put(rs.getInt("statusClass") + "xx", rs.getDouble("requests"));
+        }, Timestamp.from(window.from()), Timestamp.from(window.to()));
+        return rows;
+    }
+
+    private SortedMap<String, Double> statusClassesElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byClass", Aggregation.of(a -> a
+                .histogram(h -> h.field("statusCode").interval(100.0).minDocCount(1))
+                .aggregations("requests", weightSum()))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (HistogramBucket bucket : aggregations.get("byClass").histogram().buckets().array()) {
+            rows.put((int) (bucket.key() / 100) + "xx", bucket.aggregations().get("requests").sum().value());
+        }
+        return rows;
+    }
+
+    // ---- distinct_users_by_hour
+
+    private SortedMap<String, Double> distinctUsersClickHouse(AnalyticsQuery.Window window) {
+        SortedMap<String, Double> rows = new TreeMap<>();
+        jdbcTemplate.query("""
+            SELECT intDiv(toUnixTimestamp64Milli(`timestamp`), ?) * ? AS bucket, uniqExact(userId) AS users
+            FROM %s
+            WHERE `timestamp` >= ? AND `timestamp` < ? AND userId != ''
+            GROUP BY bucket
+        """.formatted(apiLogs), rs -> {
+            rows.put(String.valueOf(rs.getLong("bucket")), rs.getDouble("users"));
+        }, HOUR_MILLIS, HOUR_MILLIS, Timestamp.from(window.from()), Timestamp.from(window.to()));
+        return rows;
+    }
+
+    private SortedMap<String, Double> distinctUsersElasticsearch(AnalyticsQuery.Window window) {
+        Map<String, Aggregate> aggregations = search(window, Map.of("byHour", Aggregation.of(a -> a
+                .dateHistogram(d -> d.field("timestamp").fixedInterval(i -> i.time("1h")).minDocCount(1))
+                .aggregations("users", Aggregation.of(c -> c.cardinality(u -> u.field("userId").precisionThreshold(40_000)))))));
+
+        SortedMap<String, Double> rows = new TreeMap<>();
+        for (DateHistogramBucket bucket : aggregations.get("byHour").dateHistogram().buckets().array()) {
+            long users = bucket.aggregations().get("users").cardinality().value();
+            if (users > 0) {
+                rows.put(String.valueOf(bucket.key()), (double) users);
+            }
+        }
+        return rows;
+    }
+
+    // ----
+
+    private Map<String, Aggregate> search(AnalyticsQuery.Window window, Map<String, Aggregation> aggregations) {
+        try {
+            return elasticsearchClient.search(s -> s
+                            .index(apiLogIndices.alias())
+                            .size(0)
+                            .trackTotalHits(t -> t.enabled(false))
+                            .query(ApiLogIndices.timestampRange(window.from(), window.to()))
+                            .aggregations(aggregations),
+                    Void.class).aggregations();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Elasticsearch analytics query failed", e);
+        }
+    }
+
+    private static Aggregation weightSum() {
+        return Aggregation.of(s -> s.sum(f -> f.field("sampleWeight")));
+    }
+
+    private static double value(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+}
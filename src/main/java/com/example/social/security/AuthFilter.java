@@ -16,6 +16,9 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthFilter implements Filter {
     private final TokenRepository tokens;
+    private final AuthenticationCache cache;
+    private final SignedTokenCodec signedTokenCodec;
+    private final TokenRevocations revocations;
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
@@ -24,11 +27,9 @@ public class AuthFilter implements Filter {
             String header = http.getHeader("Authorization");
             if(header != null && header.startsWith("Bearer ")){
                 String raw = header.substring("Bearer ".length());
-                String hash = TokenUtils.sha256Hex(raw.getBytes());
-                Optional<Token> tok = tokens.findByTokenHashAndRevokedAtIsNull(hash);
-                if(tok.isPresent() && tok.get().isActive(Instant.now())){
-                    var u = tok.get().getUser();
-                    CurrentUserHolder.set(new CurrentUser(u.getId(), u.getUsername(), u.getRole()));
+                CurrentUser currentUser = raw.startsWith(SignedTokenCodec.PREFIX) ? fromSignedToken(raw) : fromOpaqueToken(raw);
+                if(currentUser != null){
+                    CurrentUserHolder.set(currentUser);
                 }
             }
             filterChain.doFilter(servletRequest, servletResponse);
@@ -37,4 +38,32 @@ public class AuthFilter implements Filter {
             CurrentUserHolder.clear();
         }
     }
+
+    /** Signature, expiry and revocation filter only; no database access. */
+    private CurrentUser fromSignedToken(String raw){
+        var signed = signedTokenCodec.decode(raw);
+        if(signed == null || signed.expiresAtMillis() <= System.currentTimeMillis() || revocations.isRevoked(signed)){
+            return null;
+        }
+        return signed.currentUser();
+    }
+
+    private CurrentUser fromOpaqueToken(String raw){
+        String hash = TokenUtils.sha256Hex(raw.getBytes());
+        CurrentUser cached = cache.isEnabled() ? cache.get(hash) : null;
+        if(cached != null){
+            return cached;
+        }
+        long stamp = cache.stamp();
+        Optional<Token> tok = tokens.findByTokenHashAndRevokedAtIsNull(hash);
+        if(tok.isEmpty() || !tok.get().isActive(Instant.now())){
+            return null;
+        }
+        var u = tok.get().getUser();
+        var currentUser = new CurrentUser(u.getId(), u.getUsername(), u.getRole());
+        if(cache.isEnabled()){
+            cache.put(hash, currentUser, tok.get().getExpiresAt(), stamp);
+        }
+        return currentUser;
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token hash → {@link CurrentUser} for {@link AuthFilter}, so authenticated requests skip the token/user
+ * join. Entries live at most {@code app.auth.cache.ttl-seconds} and never past the token's expiry; past
+ * {@code max-entries} expired entries go first, then arbitrary ones. Only valid tokens are cached.
+ * <p>
+ * Revocations evict after their transaction commits and, with {@code broadcast}, on every node through
+ * Redis pub/sub ({@code token:<hash>} / {@code user:<id>} on {@code channel}). A lookup that raced with an
+ * eviction is not cached, so a revoked token cannot be re-cached from a read that predates the commit.
+ */
+@Slf4j
+@Component
+public class AuthenticationCache {
+    private static final String TOKEN = "token:";
+    private static final String USER = "user:";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AppProperties.Auth.Cache config;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    private record Entry(CurrentUser user, long expiresAtMillis) {
+    }
+
+    public AuthenticationCache(AppProperties props, ObjectProvider<StringRedisTemplate> redisTemplate, MeterRegistry registry) {
+        this.config = props.getAuth().getCache();
+        this.redisTemplate = redisTemplate;
+        this.hits = registry.counter("auth.cache.requests", "result", "hit");
+        this.misses = registry.counter("auth.cache.requests", "result", "miss");
+        this.sizeEvictions = registry.counter("auth.cache.evictions", "cause", "size");
+        this.invalidations = registry.counter("auth.cache.evictions", "cause", "invalidation");
+        Gauge.builder("auth.cache.size", entries, Map::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /** The cached user, or null on a miss or an expired entry. */
+    public CurrentUser get(String tokenHash) {
+        Entry entry = entries.get(tokenHash);
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user();
+    }
+
+    /** Marks the start of a database lookup; pass it to {@link #put} to drop results that raced with an eviction. */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    public void put(String tokenHash, CurrentUser user, Instant tokenExpiresAt, long stamp) {
+        long expiresAt = Math.min(tokenExpiresAt.toEpochMilli(), System.currentTimeMillis() + config.getTtlSeconds() * 1000L);
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(tokenHash, new Entry(user, expiresAt));
+        if (evictions.get() != stamp) {
+            entries.remove(tokenHash);
+            return;
+        }
+        if (entries.size() > config.getMaxEntries()) {
+            shrink();
+        }
+    }
+
+    /** Evicts one token (logout) once the current transaction, if any, has committed. */
+    public void evictToken(String tokenHash) {
+        afterCommit(() -> {
+            evictLocally(TOKEN + tokenHash);
+            broadcast(TOKEN + tokenHash);
+        });
+    }
+
+    /** Evicts every token of a user (password change, deletion, revoke-all) once the current transaction has committed. */
+    public void evictUser(Long userId) {
+        afterCommit(() -> {
+            evictLocally(USER + userId);
+            broadcast(USER + userId);
+        });
+    }
+
+    /** Applies an eviction message published by any node, this one included. */
+    public void onMessage(String message) {
+        evictLocally(message);
+    }
+
+    private void evictLocally(String message) {
+        evictions.incrementAndGet();
+        if (message.startsWith(TOKEN)) {
+            if (entries.remove(message.substring(TOKEN.length())) != null) {
+                invalidations.increment();
+            }
+        } else if (message.startsWith(USER)) {
+            long userId = Long.parseLong(message.substring(USER.length()));
+            entries.values().removeIf(entry -> {
+                boolean match = entry.user().id() == userId;
+                if (match) {
+                    invalidations.increment();
+                }
+                return match;
+            });
+        } else {
+            log.warn("Ignoring unknown auth cache message '{}'", message);
+        }
+    }
+
+    private void broadcast(String message) {
+        if (!config.isBroadcast()) {
+            return;
+        }
+        try {
+            redisTemplate.getObject().convertAndSend(config.getChannel(), message);
+        } catch (Exception e) {
+            log.warn("Publishing auth cache eviction '{}' failed, other nodes keep it for up to {} s: {}",
+                    message, config.getTtlSeconds(), e.getMessage());
+        }
+    }
+
+    private void shrink() {
+        long now = System.currentTimeMillis();
+        int target = config.getMaxEntries() - config.getMaxEntries() / 10;
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.social.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/** Per-JVM revocations, for single-node setups such as the {@code local} profile. */
+public class InMemoryRevocationStore implements RevocationStore {
+    private final Map<String, long[]> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, long value, long keepUntilMillis) {
+        entries.merge(key, new long[]{value, keepUntilMillis},
+                (a, b) -> new long[]{Math.max(a[0], b[0]), Math.max(a[1], b[1])});
+    }
+
+    @Override
+    public Long get(String key) {
+        long[] entry = entries.get(key);
+        return entry == null || entry[1] <= System.currentTimeMillis() ? null : entry[0];
+    }
+
+    @Override
+    public void forEachLive(long nowMillis, BiConsumer<String, Long> visitor) {
+        entries.entrySet().removeIf(e -> e.getValue()[1] <= nowMillis);
+        entries.forEach((key, entry) -> visitor.accept(key, entry[0]));
+    }
+}
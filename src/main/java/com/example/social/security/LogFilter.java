@@ -1,19 +1,20 @@
 package com.example.social.security;
 
 import com.example.social.domain.entity.ApiLog;
-import com.example.social.domain.repository.ApiLogRepository;
-import com.example.social.domain.repository.ClickHouseLogRepository; // Yeni eklenen
+import com.example.social.logging.ApiLogPipeline;
+import com.example.social.logging.capture.CaptureBufferPool;
+import com.example.social.logging.capture.CaptureRules;
+import com.example.social.logging.capture.CapturingRequestWrapper;
+import com.example.social.logging.capture.CapturingResponseWrapper;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // Loglama için eklendi (Opsiyonel)
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -21,29 +22,32 @@ import java.util.UUID;
 @Component
 @RequiredArgsConstructor
 public class LogFilter implements Filter {
+    private static final String UNMATCHED_ROUTE = "UNMATCHED";
 
-    private final ApiLogRepository apiLogRepository;
-    private final ClickHouseLogRepository clickHouseLogRepository;
+    private final ApiLogPipeline apiLogPipeline;
+    private final CaptureBufferPool captureBufferPool;
+    private final CaptureRules captureRules;
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
-        ContentCachingRequestWrapper  requestWrapper = new ContentCachingRequestWrapper((HttpServletRequest) servletRequest,8192);
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper((HttpServletResponse) servletResponse);
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        CaptureRules.Limits limits = captureRules.resolve(request.getRequestURI());
+        int requestLimit = captureRules.skipContentType(request.getContentType()) ? 0 : limits.request();
+
+        CapturingRequestWrapper requestWrapper = new CapturingRequestWrapper(request, captureBufferPool, requestLimit);
+        CapturingResponseWrapper responseWrapper = new CapturingResponseWrapper((HttpServletResponse) servletResponse,
+                captureBufferPool, limits.response(), captureRules::skipContentType);
 
         long startTime = System.currentTimeMillis();
         try {
             filterChain.doFilter(requestWrapper, responseWrapper);
         }
-        catch (Exception e) {
-            filterChain.doFilter(servletRequest, servletResponse);
-        }
         finally {
+            responseWrapper.flushCapture();
             long duration = System.currentTimeMillis() - startTime;
 
             String requestHeader = requestWrapper.getHeader("Content-Type");
-            String requestBody = new String(requestWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
             String responseHeader = responseWrapper.getHeader("Content-Type");
-            String responseBody = new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
 
             String currentUserId = (requestWrapper.getUserPrincipal() != null)
                     ? requestWrapper.getUserPrincipal().getName()
@@ -51,31 +55,34 @@ public class LogFilter implements Filter {
 
             String logId = UUID.randomUUID().toString();
 
+            Object pattern = requestWrapper.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+
             ApiLog log = ApiLog.builder()
                     .id(logId)
                     .timestamp(Instant.now())
                     .httpMethod(requestWrapper.getMethod())
                     .path(requestWrapper.getRequestURI())
+                    .route(route)
                     .statusCode(responseWrapper.getStatus())
                     .duration(duration)
                     .requestHeader(requestHeader)
-                    .requestBody(requestBody)
+                    .requestBody(requestWrapper.capturedBody())
+                    .requestBodyLength(requestWrapper.originalLength())
+                    .requestBodyTruncated(requestWrapper.truncated())
                     .responseHeader(responseHeader)
-                    .responseBody(responseBody)
+                    .responseBody(responseWrapper.capturedBody())
+                    .responseBodyLength(responseWrapper.originalLength())
+                    .responseBodyTruncated(responseWrapper.truncated())
                     .clientIp(requestWrapper.getRemoteAddr())
                     .userAgent(requestWrapper.getHeader("User-Agent"))
                     .userId(currentUserId)
                     .build();
 
-            apiLogRepository.save(log);
-
-            try {
-                clickHouseLogRepository.save(log);
-            } catch (Exception e) {
-                System.err.println("ClickHouse Logging Error: " + e.getCause().getMessage());
-            }
+            requestWrapper.release();
+            responseWrapper.release();
 
-            responseWrapper.copyBodyToResponse();
+            apiLogPipeline.submit(log);
         }
     }
-}
\ No newline at end of file
+}
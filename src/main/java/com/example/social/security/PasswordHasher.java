@@ -0,0 +1,127 @@
+package com.example.social.security;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.example.social.config.AppProperties;
+import com.example.social.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt on a dedicated pool of {@code app.auth.password.threads}, so a burst of logins occupies at most
+ * that many cores and request threads serving cheap reads keep running. At most {@code queue-capacity}
+ * operations wait; beyond that, or once a caller has waited {@code timeout-millis}, the request fails
+ * fast with {@link ServiceUnavailableException} (503) instead of queueing without bound.
+ */
+@Component
+public class PasswordHasher {
+    private final AppProperties.Auth.Password config;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashLatency;
+    private final Timer verifyLatency;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public record Verification(boolean verified, boolean needsRehash) {
+    }
+
+    public PasswordHasher(AppProperties props, MeterRegistry registry) {
+        this.config = props.getAuth().getPassword();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, config.getThreads()), Math.max(1, config.getThreads()),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                r -> Thread.ofPlatform().name("password-hasher-" + threadIndex.getAndIncrement()).daemon(true).unstarted(r),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashLatency = Timer.builder("auth.password.duration").tag("operation", "hash").register(registry);
+        this.verifyLatency = Timer.builder("auth.password.duration").tag("operation", "verify").register(registry);
+        this.queueWait = Timer.builder("auth.password.queue.wait").register(registry);
+        this.rejected = registry.counter("auth.password.rejected");
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    /** Hashes at the configured cost. */
+    public String hash(String password) {
+        return run(hashLatency, () -> BCrypt.withDefaults().hashToString(config.getCost(), password.toCharArray()));
+    }
+
+    /** {@code needsRehash} is set for a correct password whose hash uses a different cost than configured. */
+    public Verification verify(String password, String hash) {
+        boolean verified = run(verifyLatency, () -> BCrypt.verifyer().verify(password.toCharArray(), hash).verified);
+        return new Verification(verified, verified && cost(hash) != config.getCost());
+    }
+
+    /** Hashes without the pool, for startup work such as seeding that no request waits on. */
+    public String hashNow(String password) {
+        return BCrypt.withDefaults().hashToString(config.getCost(), password.toCharArray());
+    }
+
+    private <T> T run(Timer latency, Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return work.call();
+                } finally {
+                    latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many password operations in progress, please retry shortly");
+        }
+        try {
+            return future.get(config.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejected.increment();
+            throw new ServiceUnavailableException("Password operation timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password operation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password operation failed", e.getCause());
+        }
+    }
+
+    /** Cost field of a modular-crypt BCrypt hash ({@code $2a$12$...}), or -1 when unparseable. */
+    static int cost(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') {
+            return -1;
+        }
+        int start = hash.indexOf('$', 1) + 1;
+        try {
+            return Integer.parseInt(hash, start, start + 2, 10);
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.social.security;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * One Redis hash shared by all nodes: field {@code t:<id>} / {@code u:<id>}, value {@code <value>:<keepUntilMillis>}.
+ * Expired fields are removed by whichever node rebuilds next.
+ */
+public class RedisRevocationStore implements RevocationStore {
+    private final StringRedisTemplate redisTemplate;
+    private final String hashKey;
+
+    public RedisRevocationStore(StringRedisTemplate redisTemplate, String hashKey) {
+        this.redisTemplate = redisTemplate;
+        this.hashKey = hashKey;
+    }
+
+    @Override
+    public void put(String key, long value, long keepUntilMillis) {
+        hash().put(hashKey, key, value + ":" + keepUntilMillis);
+    }
+
+    @Override
+    public Long get(String key) {
+        long[] entry = parse(hash().get(hashKey, key));
+        return entry == null || entry[1] <= System.currentTimeMillis() ? null : entry[0];
+    }
+
+    @Override
+    public void forEachLive(long nowMillis, BiConsumer<String, Long> visitor) {
+        List<Object> expired = new ArrayList<>();
+        try (Cursor<Map.Entry<String, String>> cursor = hash().scan(hashKey, ScanOptions.scanOptions().count(1000).build())) {
+            while (cursor.hasNext()) {
+                Map.Entry<String, String> field = cursor.next();
+                long[] entry = parse(field.getValue());
+                if (entry == null || entry[1] <= nowMillis) {
+                    expired.add(field.getKey());
+                } else {
+                    visitor.accept(field.getKey(), entry[0]);
+                }
+            }
+        }
+        if (!expired.isEmpty()) {
+            hash().delete(hashKey, expired.toArray());
+        }
+    }
+
+    private HashOperations<String, String, String> hash() {
+        return redisTemplate.opsForHash();
+    }
+
+    private static long[] parse(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        int colon = raw.indexOf(':');
+        try {
+            return new long[]{Long.parseLong(raw.substring(0, colon)), Long.parseLong(raw.substring(colon + 1))};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.social.security;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Source of truth for revoked signed tokens, keyed {@code t:<token id>} or {@code u:<user id>}.
+ * Every node rebuilds its {@link TokenRevocations} filter from it; see {@code app.auth.token.revocation.store}.
+ */
+public interface RevocationStore {
+    /** Records {@code key -> value}, keeping it until {@code keepUntilMillis}. Values only grow: token expiry, user revocation time. */
+    void put(String key, long value, long keepUntilMillis);
+
+    /** The value, or null when {@code key} was never revoked or has expired. */
+    Long get(String key);
+
+    /** Visits every entry still needed at {@code nowMillis} and drops the rest. */
+    void forEachLive(long nowMillis, BiConsumer<String, Long> visitor);
+}
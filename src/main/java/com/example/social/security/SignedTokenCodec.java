@@ -0,0 +1,121 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.Role;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Self-contained access tokens: {@code st1.<payload>.<HMAC-SHA256(payload)>}, both parts Base64URL.
+ * The payload carries a random token id, the user id, username and role, and issue/expiry times in
+ * epoch millis, so verifying one is pure CPU work. Enabled once {@code app.auth.token.signing-key}
+ * (Base64, at least 32 bytes) is set; tokens from a different key never verify.
+ */
+@Component
+public class SignedTokenCodec {
+    public static final String PREFIX = "st1.";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record SignedToken(String id, long userId, String username, Role role, long issuedAtMillis, long expiresAtMillis) {
+        public CurrentUser currentUser() {
+            return new CurrentUser(userId, username, role);
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public SignedTokenCodec(AppProperties props) {
+        String encoded = props.getAuth().getToken().getSigningKey();
+        if (encoded == null || encoded.isBlank()) {
+            if (props.getAuth().getToken().getMode() == AppProperties.Auth.Token.Mode.SIGNED) {
+                throw new IllegalStateException("app.auth.token.mode=SIGNED needs app.auth.token.signing-key");
+            }
+            this.key = null;
+            this.macs = null;
+            return;
+        }
+        byte[] secret = Base64.getDecoder().decode(encoded.strip());
+        if (secret.length < 32) {
+            throw new IllegalStateException("app.auth.token.signing-key must decode to at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    public String encode(SignedToken token) {
+        requireEnabled();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(token.id());
+            out.writeLong(token.userId());
+            out.writeUTF(token.username());
+            out.writeUTF(token.role().name());
+            out.writeLong(token.issuedAtMillis());
+            out.writeLong(token.expiresAtMillis());
+        } catch (IOException e) {
+            throw new IllegalStateException("Encoding token failed", e);
+        }
+        String payload = ENCODER.encodeToString(bytes.toByteArray());
+        return PREFIX + payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /** The token if it is well-formed and signed with our key, otherwise null. Expiry is not checked here. */
+    public SignedToken decode(String raw) {
+        if (!isEnabled() || raw == null || !raw.startsWith(PREFIX)) {
+            return null;
+        }
+        int dot = raw.indexOf('.', PREFIX.length());
+        if (dot < 0) {
+            return null;
+        }
+        String payload = raw.substring(PREFIX.length(), dot);
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(raw.substring(dot + 1)))) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(DECODER.decode(payload)));
+            return new SignedToken(in.readUTF(), in.readLong(), in.readUTF(), Role.valueOf(in.readUTF()), in.readLong(), in.readLong());
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        Mac mac = macs.get();
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Signed tokens need app.auth.token.signing-key");
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Revocation check for signed tokens without a per-request round trip. Each node holds a Bloom filter
+ * of every live revocation in the {@link RevocationStore}, rebuilt every {@code rebuild-interval-millis},
+ * plus an exact map of revocations seen since the last rebuild (made here or received over pub/sub).
+ * A token whose id and user miss the filter is not revoked; a filter hit is confirmed exactly, from the
+ * recent map or the store, and an unreachable store counts as revoked. A revocation the store could not
+ * take is still enforced on this node and written again on every rebuild until the store accepts it.
+ * <ul>
+ *   <li>{@code t:<token id>}: logout, kept until the token expires</li>
+ *   <li>{@code u:<user id>} → revocation time: every token of the user issued until then (password change,
+ *       deletion), kept for one token lifetime</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TokenRevocations {
+    private static final String TOKEN = "t:";
+    private static final String USER = "u:";
+    /** Recent-map marker for a filter hit the store confirmed as not revoked. */
+    private static final long NOT_REVOKED = Long.MIN_VALUE;
+
+    private final RevocationStore store;
+    private final SignedTokenCodec codec;
+    private final AppProperties.Auth.Token config;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final Map<String, Long> recent = new ConcurrentHashMap<>();
+    /** key → {value, keepUntilMillis} of revocations the store rejected, retried on rebuild. */
+    private final Map<String, long[]> unsaved = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+
+    private final Counter filterHits;
+    private final Counter storeLookups;
+    private final Counter rejected;
+
+    public TokenRevocations(RevocationStore store, SignedTokenCodec codec, AppProperties props,
+                            ObjectProvider<StringRedisTemplate> redisTemplate, MeterRegistry registry) {
+        this.store = store;
+        this.codec = codec;
+        this.config = props.getAuth().getToken();
+        this.redisTemplate = redisTemplate;
+        this.filter = BloomFilter.create(config.getRevocation().getExpectedEntries(), config.getRevocation().getFalsePositiveRate());
+        this.filterHits = registry.counter("auth.revocation.filter.hits");
+        this.storeLookups = registry.counter("auth.revocation.store.lookups");
+        this.rejected = registry.counter("auth.revocation.rejected");
+        Gauge.builder("auth.revocation.filter.bytes", this, r -> r.filter.sizeBytes()).register(registry);
+        Gauge.builder("auth.revocation.recent", recent, Map::size).register(registry);
+        Gauge.builder("auth.revocation.unsaved", unsaved, Map::size).register(registry);
+    }
+
+    public boolean isRevoked(SignedTokenCodec.SignedToken token) {
+        boolean revoked = matches(TOKEN + token.id(), value -> true)
+                || matches(USER + token.userId(), revokedAt -> token.issuedAtMillis() <= revokedAt);
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    public void revokeToken(SignedTokenCodec.SignedToken token) {
+        record(TOKEN + token.id(), token.expiresAtMillis(), token.expiresAtMillis());
+    }
+
+    /**
+     * Revokes every signed token of the user issued until the current transaction, if any, commits;
+     * a no-op while signed tokens are disabled or when the transaction rolls back.
+     */
+    public void revokeUser(long userId) {
+        if (!codec.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            record(USER + userId, now, now + config.getTtlMinutes() * 60_000L);
+        });
+    }
+
+    /** Applies a {@code <key>=<value>} revocation published by any node, this one included. */
+    public void onMessage(String message) {
+        int eq = message.lastIndexOf('=');
+        try {
+            apply(message.substring(0, eq), Long.parseLong(message.substring(eq + 1)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed revocation message '{}'", message);
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        if (codec.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.token.revocation.rebuild-interval-millis:60000}",
+            initialDelayString = "${app.auth.token.revocation.rebuild-interval-millis:60000}")
+    public void rebuild() {
+        if (!codec.isEnabled()) {
+            return;
+        }
+        retryUnsaved();
+        Map<String, Long> live = new HashMap<>();
+        try {
+            store.forEachLive(System.currentTimeMillis(), live::put);
+        } catch (Exception e) {
+            log.warn("Rebuilding the token revocation filter failed, keeping the current one: {}", e.getMessage());
+            return;
+        }
+        AppProperties.Auth.Token.Revocation revocation = config.getRevocation();
+        BloomFilter next = BloomFilter.create(Math.max(revocation.getExpectedEntries(), 2L * live.size()), revocation.getFalsePositiveRate());
+        live.keySet().forEach(next::add);
+        filter = next;
+        // apply() writes the recent map before the filter, so whatever raced with the swap is in the map
+        // unsaved revocations stay, the store may hold an older value for the same key
+        recent.entrySet().removeIf(e -> e.getValue() == NOT_REVOKED || (live.containsKey(e.getKey()) && !unsaved.containsKey(e.getKey())));
+        recent.keySet().forEach(next::add);
+        loaded = true;
+        log.debug("Token revocation filter rebuilt: {} entries, {} bytes", live.size(), next.sizeBytes());
+    }
+
+    private boolean matches(String key, LongPredicate revoked) {
+        if (loaded && !filter.mightContain(key)) {
+            return false;
+        }
+        filterHits.increment();
+        Long value = recent.get(key);
+        if (value == null) {
+            storeLookups.increment();
+            try {
+                value = store.get(key);
+            } catch (Exception e) {
+                log.warn("Revocation lookup for {} failed, rejecting the token: {}", key, e.getMessage());
+                return true;
+            }
+            if (value == null) {
+                recent.putIfAbsent(key, NOT_REVOKED);
+                return false;
+            }
+            apply(key, value);
+        }
+        return value != NOT_REVOKED && revoked.test(value);
+    }
+
+    private void record(String key, long value, long keepUntilMillis) {
+        apply(key, value);
+        try {
+            store.put(key, value, keepUntilMillis);
+        } catch (Exception e) {
+            // runs after the change committed: failing here would only turn it into a 500 and drop the revocation
+            unsaved.merge(key, new long[]{value, keepUntilMillis}, (a, b) -> new long[]{Math.max(a[0], b[0]), Math.max(a[1], b[1])});
+            log.error("Storing revocation {} failed, enforced on this node only until the next rebuild retries it: {}", key, e.getMessage());
+        }
+        if (config.getRevocation().getStore() == AppProperties.Auth.Token.Revocation.Store.REDIS) {
+            try {
+                redisTemplate.getObject().convertAndSend(config.getRevocation().getChannel(), key + "=" + value);
+            } catch (Exception e) {
+                log.warn("Publishing revocation {} failed, other nodes see it after their next rebuild: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private void retryUnsaved() {
+        long now = System.currentTimeMillis();
+        unsaved.forEach((key, entry) -> {
+            if (entry[1] <= now) {
+                unsaved.remove(key, entry);
+                return;
+            }
+            try {
+                store.put(key, entry[0], entry[1]);
+                unsaved.remove(key, entry);
+            } catch (Exception e) {
+                log.error("Storing revocation {} failed again: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private void apply(String key, long value) {
+        recent.merge(key, value, Math::max);
+        filter.add(key);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
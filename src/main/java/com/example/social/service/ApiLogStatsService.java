@@ -0,0 +1,60 @@
+package com.example.social.service;
+
+import com.example.social.domain.Role;
+import com.example.social.domain.repository.ClickHouseRouteStatsRepository;
+import com.example.social.domain.repository.ClickHouseRouteStatsRepository.Granularity;
+import com.example.social.domain.repository.ClickHouseRouteStatsRepository.RouteLatency;
+import com.example.social.security.CurrentUser;
+import com.example.social.web.exception.ForbiddenException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ApiLogStatsService {
+    private static final Duration MINUTE_RESOLUTION_LIMIT = Duration.ofHours(6);
+
+    private final ClickHouseRouteStatsRepository routeStats;
+    private final AuthService authService;
+
+    public List<RouteLatency> routeLatency(Instant from, Instant to, Granularity granularity, String route) {
+        requireAdmin();
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return routeStats.findLatencyByRoute(resolve(granularity, start, end), start, end, route);
+    }
+
+    public List<RouteLatency> slowestRoutes(Instant from, Instant to, int limit) {
+        requireAdmin();
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (limit < 1 || limit > 1000) {
+            throw new IllegalArgumentException("limit must be between 1 and 1000");
+        }
+        return routeStats.findTopRoutes(resolve(null, start, end), start, end, limit);
+    }
+
+    private static Granularity resolve(Granularity requested, Instant from, Instant to) {
+        if (requested != null) {
+            return requested;
+        }
+        return Duration.between(from, to).compareTo(MINUTE_RESOLUTION_LIMIT) > 0 ? Granularity.HOUR : Granularity.MINUTE;
+    }
+
+    private void requireAdmin() {
+        CurrentUser currentUser = authService.requireCurrent();
+        if (currentUser.role() != Role.ADMIN) {
+            throw new ForbiddenException("Admin only");
+        }
+    }
+}
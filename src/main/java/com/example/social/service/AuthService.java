@@ -1,38 +1,50 @@
 package com.example.social.service;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import com.example.social.config.AppProperties;
 import com.example.social.domain.Role;
 import com.example.social.domain.entity.Token;
 import com.example.social.domain.entity.User;
 import com.example.social.domain.repository.TokenRepository;
 import com.example.social.domain.repository.UserRepository;
+import com.example.social.security.AuthenticationCache;
 import com.example.social.security.CurrentUser;
 import com.example.social.security.CurrentUserHolder;
+import com.example.social.security.PasswordHasher;
+import com.example.social.security.SignedTokenCodec;
+import com.example.social.security.TokenRevocations;
 import com.example.social.security.TokenUtils;
 import com.example.social.web.exception.NotFoundException;
+import com.example.social.web.exception.ServiceUnavailableException;
 import com.example.social.web.exception.UnauthorizedException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository users;
     private final TokenRepository tokens;
+    private final AuthenticationCache authenticationCache;
+    private final SignedTokenCodec signedTokenCodec;
+    private final TokenRevocations tokenRevocations;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
     private final AppProperties props;
 
-    @Transactional
+    /** Not transactional: the lookup and the insert each take a connection only briefly, BCrypt runs in between. */
     public User signup(String username, String password){
         users.findUserByUsername(username).ifPresent(u -> {
             throw new IllegalArgumentException("Username already exists!");
         });
-        String hash = BCrypt.withDefaults().hashToString(12, password.toCharArray());
+        String hash = passwordHasher.hash(password);
         var user = User.builder()
                 .username(username)
                 .passwordHash(hash)
@@ -43,26 +55,36 @@ public class AuthService {
         return users.save(user);
     }
 
-    @Transactional
+    /** Not transactional, like {@link #signup}: no pooled connection waits on the BCrypt check. */
     public LoginResult login(String username, String password, String userAgent, String ip){
         var user = users.findUserByUsername(username)
                 .orElseThrow(() -> new NotFoundException("User not found!"));
 
+        var result = passwordHasher.verify(password, user.getPasswordHash());
 
-        var result = BCrypt.verifyer().verify(password.toCharArray(), user.getPasswordHash());
-
-        if (!result.verified || user.isDeleted()) {
+        if (!result.verified() || user.isDeleted()) {
             throw new UnauthorizedException("Invalid credentials");
         }
+        if (result.needsRehash()) {
+            rehash(user, password);
+        }
+
+        Instant now = Instant.now();
+        Instant exp = now.plus(props.getAuth().getToken().getTtlMinutes(), ChronoUnit.MINUTES);
+        long expiresIn = ChronoUnit.SECONDS.between(now, exp);
+
+        if (props.getAuth().getToken().getMode() == AppProperties.Auth.Token.Mode.SIGNED) {
+            String id = Base64.getUrlEncoder().withoutPadding().encodeToString(TokenUtils.randomBytes(12));
+            String signed = signedTokenCodec.encode(new SignedTokenCodec.SignedToken(id, user.getId(), user.getUsername(),
+                    user.getRole(), now.toEpochMilli(), exp.toEpochMilli()));
+            return new LoginResult(signed, expiresIn);
+        }
 
         int lengthBytes = props.getAuth().getToken().getLengthBytes();
         byte[] raw = TokenUtils.randomBytes(lengthBytes);
         String rawEncoded = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
         String hash = TokenUtils.sha256Hex(rawEncoded.getBytes());
 
-        Instant now = Instant.now();
-        Instant exp = now.plus(props.getAuth().getToken().getTtlMinutes(), ChronoUnit.MINUTES);
-
         var token = Token.builder()
                 .user(user)
                 .tokenHash(hash)
@@ -73,7 +95,6 @@ public class AuthService {
                 .build();
         tokens.save(token);
 
-        long expiresIn = ChronoUnit.SECONDS.between(now, exp);
         return new LoginResult(rawEncoded, expiresIn);
     }
 
@@ -83,11 +104,38 @@ public class AuthService {
             return;
         }
 
+        if (bearerRaw.startsWith(SignedTokenCodec.PREFIX)) {
+            var signed = signedTokenCodec.decode(bearerRaw);
+            if (signed != null && signed.expiresAtMillis() > System.currentTimeMillis()) {
+                tokenRevocations.revokeToken(signed);
+            }
+            return;
+        }
+
         String hash = TokenUtils.sha256Hex(bearerRaw.getBytes());
         tokens.findByTokenHashAndRevokedAtIsNull(hash).ifPresent(token -> {
             token.setRevokedAt(Instant.now());
             tokens.save(token);
                 });
+        authenticationCache.evictToken(hash);
+    }
+
+    /**
+     * Upgrades a hash made at another cost; best effort, a busy hasher just leaves it for the next login.
+     * Skipped when the password changed since it was verified.
+     */
+    private void rehash(User user, String password) {
+        String verified = user.getPasswordHash();
+        String upgraded;
+        try {
+            upgraded = passwordHasher.hash(password);
+        } catch (ServiceUnavailableException e) {
+            log.debug("Skipping password rehash for user {}: {}", user.getId(), e.getMessage());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> users.findById(user.getId())
+                .filter(current -> current.getPasswordHash().equals(verified))
+                .ifPresent(current -> current.setPasswordHash(upgraded)));
     }
 
     public CurrentUser requireCurrent(){
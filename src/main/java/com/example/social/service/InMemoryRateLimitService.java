@@ -0,0 +1,37 @@
+package com.example.social.service;
+
+import com.example.social.config.AppProperties;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Same fixed windows as {@link RedisRateLimitService}, counted in this JVM only, so every node
+ * limits on its own. Expired windows are dropped whenever the map grows past {@code SWEEP_THRESHOLD}.
+ */
+public class InMemoryRateLimitService implements RateLimitService {
+    private static final int SWEEP_THRESHOLD = 100_000;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AppProperties.RateLimit config;
+
+    private record Window(long startNanos, AtomicLong count) {
+    }
+
+    public InMemoryRateLimitService(AppProperties.RateLimit config) {
+        this.config = config;
+    }
+
+    @Override
+    public boolean isAllowed(String key) {
+        long now = System.nanoTime();
+        long length = TimeUnit.SECONDS.toNanos(config.getWindowSeconds());
+        Window window = windows.compute(key, (k, current) ->
+                current == null || now - current.startNanos() >= length ? new Window(now, new AtomicLong()) : current);
+        if (windows.size() > SWEEP_THRESHOLD) {
+            windows.values().removeIf(w -> now - w.startNanos() >= length);
+        }
+        return window.count().incrementAndGet() <= config.getMaxRequests();
+    }
+}
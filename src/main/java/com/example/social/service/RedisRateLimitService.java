@@ -0,0 +1,29 @@
+package com.example.social.service;
+
+import com.example.social.config.AppProperties;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+public class RedisRateLimitService implements RateLimitService {
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties.RateLimit config;
+
+    public RedisRateLimitService(StringRedisTemplate redisTemplate, AppProperties.RateLimit config) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+    }
+
+    @Override
+    public boolean isAllowed(String key){
+        String redisKey = "rate_limit:" + key;
+
+        Long count = redisTemplate.opsForValue().increment(redisKey);
+
+        if(count != null && count == 1){
+            redisTemplate.expire(redisKey, Duration.ofSeconds(config.getWindowSeconds()));
+        }
+
+        return count != null && count <= config.getMaxRequests();
+    }
+}
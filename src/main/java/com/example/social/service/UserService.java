@@ -1,18 +1,21 @@
 package com.example.social.service;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import com.example.social.domain.Role;
 import com.example.social.domain.entity.Token;
 import com.example.social.domain.entity.User;
 import com.example.social.domain.repository.TokenRepository;
 import com.example.social.domain.repository.UserRepository;
+import com.example.social.security.AuthenticationCache;
 import com.example.social.security.CurrentUser;
+import com.example.social.security.PasswordHasher;
+import com.example.social.security.TokenRevocations;
 import com.example.social.web.exception.ForbiddenException;
 import com.example.social.web.exception.NotFoundException;
 import com.example.social.web.exception.UnauthorizedException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
@@ -23,6 +26,10 @@ public class UserService {
     private final UserRepository users;
     private final TokenRepository tokens;
     private final AuthService authService;
+    private final AuthenticationCache authenticationCache;
+    private final TokenRevocations tokenRevocations;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional()
     public User getUserVisibleById(Long id){
@@ -40,24 +47,33 @@ public class UserService {
         return users.findAllById(ids);
     }
 
-    @Transactional
+    /**
+     * Not transactional as a whole: both BCrypt calls run between a short read and a short write, so no
+     * pooled connection waits on them. The write applies only if the hash is still the one verified.
+     */
     public void updateOwnPassword(String currentPassword, String newPassword){
         CurrentUser currentUser = authService.requireCurrent();
         User user = users.findById(currentUser.id()).orElseThrow(()-> new UnauthorizedException("Invalid credentials or session. Please log in again."));
 
-        var verified = BCrypt.verifyer()
-                .verify(currentPassword.toCharArray(), user.getPasswordHash())
-                .verified;
+        var verified = passwordHasher.verify(currentPassword, user.getPasswordHash()).verified();
 
         if(!verified){
             throw new ForbiddenException("Current password does not match");
         }
 
-        String newHash = BCrypt.withDefaults().hashToString(12, newPassword.toCharArray());
-        user.setPasswordHash(newHash);
-        users.save(user);
+        String verifiedHash = user.getPasswordHash();
+        String newHash = passwordHasher.hash(newPassword);
 
-        revokeAllActiveTokensOf(user.getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            User current = users.findById(user.getId()).orElseThrow(()-> new UnauthorizedException("Invalid credentials or session. Please log in again."));
+            if(!current.getPasswordHash().equals(verifiedHash)){
+                throw new ForbiddenException("Current password does not match");
+            }
+            current.setPasswordHash(newHash);
+            users.save(current);
+
+            revokeAllActiveTokensOf(current.getId());
+        });
     }
 
     @Transactional
@@ -101,6 +117,8 @@ public class UserService {
     }
 
     private void revokeAllActiveTokensOf(Long userId) {
+        authenticationCache.evictUser(userId);
+        tokenRevocations.revokeUser(userId);
         List<Token> active = tokens.findAllByUser_IdAndRevokedAtIsNull(userId);
         if (active.isEmpty()) return;
         Instant now = Instant.now();
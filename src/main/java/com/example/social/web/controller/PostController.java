@@ -104,7 +104,7 @@ public class PostController {
         return ResponseEntity.noContent().build();
     }
 
-    private PostDTOs.PostResponse toResponse(Post p, User author, List<Comment> commentList){
+    static PostDTOs.PostResponse toResponse(Post p, User author, List<Comment> commentList){
         var comments = commentList.stream()
                 .map(c -> new PostDTOs.CommentResponse(c.getId(), c.getAuthorId(), c.getContent(), c.getCreatedAt()))
                 .toList();
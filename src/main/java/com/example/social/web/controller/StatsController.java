@@ -0,0 +1,53 @@
+package com.example.social.web.controller;
+
+import com.example.social.domain.repository.ClickHouseRouteStatsRepository.Granularity;
+import com.example.social.domain.repository.ClickHouseRouteStatsRepository.RouteLatency;
+import com.example.social.service.ApiLogStatsService;
+import com.example.social.web.dto.StatsDTOs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class StatsController {
+    private final ApiLogStatsService statsService;
+
+    @GetMapping("/admin/stats/routes")
+    public ResponseEntity<List<StatsDTOs.RouteLatencyResponse>> routeLatency(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Granularity granularity,
+            @RequestParam(required = false) String route) {
+        return ResponseEntity.ok(statsService.routeLatency(from, to, granularity, route).stream()
+                .map(StatsController::toResponse)
+                .toList());
+    }
+
+    @GetMapping("/admin/stats/routes/slowest")
+    public ResponseEntity<List<StatsDTOs.RouteLatencyResponse>> slowestRoutes(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(statsService.slowestRoutes(from, to, limit).stream()
+                .map(StatsController::toResponse)
+                .toList());
+    }
+
+    private static StatsDTOs.RouteLatencyResponse toResponse(RouteLatency stats) {
+        return new StatsDTOs.RouteLatencyResponse(
+                stats.bucket().toString(),
+                stats.httpMethod(),
+                stats.route(),
+                Math.round(stats.requests()),
+                Math.round(stats.errors()),
+                stats.p50(),
+                stats.p95(),
+                stats.p99()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.social.web.dto;
+
+public class StatsDTOs {
+    public record RouteLatencyResponse(String bucket,
+                                       String httpMethod,
+                                       String route,
+                                       long requests,
+                                       long errors,
+                                       double p50Millis,
+                                       double p95Millis,
+                                       double p99Millis
+    ){}
+}
@@ -2,6 +2,7 @@ package com.example.social.web.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +38,12 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", e.getMessage(), request);
     }
 
+    @ExceptionHandler({ServiceUnavailableException.class})
+    public ResponseEntity<ApiError> serviceUnavailable(Exception e, HttpServletRequest request) {
+        var response = build(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE", e.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(response.getBody());
+    }
+
     private ResponseEntity<ApiError> build(HttpStatus status, String code, String message, HttpServletRequest request) {
         var body = ApiError.builder()
                 .timestamp(Instant.now())
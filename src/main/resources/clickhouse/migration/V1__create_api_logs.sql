@@ -0,0 +1,34 @@
+CREATE TABLE IF NOT EXISTS ${database}.api_logs (
+    id                    String,
+    `timestamp`           DateTime64(3, 'UTC') CODEC(DoubleDelta, LZ4),
+    httpMethod            LowCardinality(String),
+    `path`                String CODEC(ZSTD(1)),
+    route                 LowCardinality(String),
+    statusCode            UInt16 CODEC(T64, LZ4),
+    duration              Int64 CODEC(T64, LZ4),
+    requestHeader         LowCardinality(String),
+    requestBody           String CODEC(ZSTD(3)),
+    requestBodyLz4        String CODEC(NONE),
+    requestBodyLength     UInt64 CODEC(T64, LZ4),
+    requestBodyTruncated  Bool,
+    responseHeader        LowCardinality(String),
+    responseBody          String CODEC(ZSTD(3)),
+    responseBodyLz4       String CODEC(NONE),
+    responseBodyLength    UInt64 CODEC(T64, LZ4),
+    responseBodyTruncated Bool,
+    userId                String CODEC(ZSTD(1)),
+    clientIp              String CODEC(ZSTD(1)),
+    userAgent             LowCardinality(String),
+    sampleWeight          Float64 CODEC(Gorilla, LZ4)
+) ENGINE = MergeTree
+PARTITION BY toDate(`timestamp`)
+ORDER BY (httpMethod, `timestamp`)
+TTL toDateTime(`timestamp`) + INTERVAL ${retention_days} DAY DELETE
+SETTINGS index_granularity = 8192;
+
+CREATE TABLE IF NOT EXISTS ${database}.api_logs_refined (
+    id            String,
+    originalLogId String,
+    userType      String,
+    durationColor String
+) ENGINE = MergeTree() ORDER BY id;
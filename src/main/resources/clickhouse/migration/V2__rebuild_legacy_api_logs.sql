@@ -0,0 +1,63 @@
+-- Brings api_logs tables created before the schema was managed up to the V1 layout.
+-- Their sorting-key columns (`timestamp` DateTime, httpMethod String) cannot be retyped by ALTER, so the table
+-- is rebuilt: missing columns are added, the rows are copied into a table with the V1 layout (casting on insert),
+-- and the two are swapped. On a table created by V1 this copies nothing. Rerunning after a failure is safe: a
+-- leftover api_logs_rebuild is either a partial copy or, after a completed swap, the already copied old table.
+-- Rows other instances write to the old table during the copy are lost, so stop them while this runs.
+ALTER TABLE ${database}.api_logs
+    ADD COLUMN IF NOT EXISTS route                 LowCardinality(String) AFTER `path`,
+    ADD COLUMN IF NOT EXISTS requestBodyLz4        String CODEC(NONE) AFTER requestBody,
+    ADD COLUMN IF NOT EXISTS requestBodyLength     UInt64 CODEC(T64, LZ4) AFTER requestBodyLz4,
+    ADD COLUMN IF NOT EXISTS requestBodyTruncated  Bool AFTER requestBodyLength,
+    ADD COLUMN IF NOT EXISTS responseBodyLz4       String CODEC(NONE) AFTER responseBody,
+    ADD COLUMN IF NOT EXISTS responseBodyLength    UInt64 CODEC(T64, LZ4) AFTER responseBodyLz4,
+    ADD COLUMN IF NOT EXISTS responseBodyTruncated Bool AFTER responseBodyLength,
+    ADD COLUMN IF NOT EXISTS sampleWeight          Float64 DEFAULT 1 CODEC(Gorilla, LZ4);
+
+DROP TABLE IF EXISTS ${database}.api_logs_rebuild;
+
+CREATE TABLE ${database}.api_logs_rebuild (
+    id                    String,
+    `timestamp`           DateTime64(3, 'UTC') CODEC(DoubleDelta, LZ4),
+    httpMethod            LowCardinality(String),
+    `path`                String CODEC(ZSTD(1)),
+    route                 LowCardinality(String),
+    statusCode            UInt16 CODEC(T64, LZ4),
+    duration              Int64 CODEC(T64, LZ4),
+    requestHeader         LowCardinality(String),
+    requestBody           String CODEC(ZSTD(3)),
+    requestBodyLz4        String CODEC(NONE),
+    requestBodyLength     UInt64 CODEC(T64, LZ4),
+    requestBodyTruncated  Bool,
+    responseHeader        LowCardinality(String),
+    responseBody          String CODEC(ZSTD(3)),
+    responseBodyLz4       String CODEC(NONE),
+    responseBodyLength    UInt64 CODEC(T64, LZ4),
+    responseBodyTruncated Bool,
+    userId                String CODEC(ZSTD(1)),
+    clientIp              String CODEC(ZSTD(1)),
+    userAgent             LowCardinality(String),
+    sampleWeight          Float64 CODEC(Gorilla, LZ4)
+) ENGINE = MergeTree
+PARTITION BY toDate(`timestamp`)
+ORDER BY (httpMethod, `timestamp`)
+TTL toDateTime(`timestamp`) + INTERVAL ${retention_days} DAY DELETE
+SETTINGS index_granularity = 8192;
+
+INSERT INTO ${database}.api_logs_rebuild (
+    id, `timestamp`, httpMethod, `path`, route, statusCode, duration,
+    requestHeader, requestBody, requestBodyLz4, requestBodyLength, requestBodyTruncated,
+    responseHeader, responseBody, responseBodyLz4, responseBodyLength, responseBodyTruncated,
+    userId, clientIp, userAgent, sampleWeight
+)
+SELECT
+    id, `timestamp`, httpMethod, `path`, route, statusCode, duration,
+    requestHeader, requestBody, requestBodyLz4, requestBodyLength, requestBodyTruncated,
+    responseHeader, responseBody, responseBodyLz4, responseBodyLength, responseBodyTruncated,
+    userId, clientIp, userAgent, sampleWeight
+FROM ${database}.api_logs;
+
+-- atomic swap; needs the default Atomic database engine
+EXCHANGE TABLES ${database}.api_logs AND ${database}.api_logs_rebuild;
+
+DROP TABLE ${database}.api_logs_rebuild;
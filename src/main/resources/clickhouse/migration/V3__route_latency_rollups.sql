@@ -0,0 +1,92 @@
+-- Per-minute and per-hour latency rollups per method/route/status, maintained at insert time.
+-- requests/errors are weighted by sampleWeight so sampled logs extrapolate to true totals. The latency percentiles
+-- are weighted the same way, since the sampler keeps every slow request but only a share of fast ones. The weighted
+-- t-digest takes an integer weight, so sampleWeight is scaled by 100 to keep fractional weights apart.
+-- ${migration_started_at} splits the rows between the two writers: the views take timestamp >= cutoff, the
+-- backfill timestamp < cutoff, so no row is counted twice. A rerun after a failure drops the views and empties
+-- the rollups first, then repeats both halves with its own cutoff. Rows with a timestamp before the cutoff that
+-- reach api_logs after the backfill are not counted, so stop other writers while this runs.
+DROP VIEW IF EXISTS ${database}.api_logs_route_1m_mv;
+DROP VIEW IF EXISTS ${database}.api_logs_route_1h_mv;
+
+CREATE TABLE IF NOT EXISTS ${database}.api_logs_route_1m (
+    bucket             DateTime('UTC'),
+    httpMethod         LowCardinality(String),
+    route              LowCardinality(String),
+    statusCode         UInt16,
+    requests           SimpleAggregateFunction(sum, Float64),
+    errors             SimpleAggregateFunction(sum, Float64),
+    duration_quantiles AggregateFunction(quantilesTDigestWeighted(0.5, 0.95, 0.99), Int64, UInt64)
+) ENGINE = AggregatingMergeTree
+PARTITION BY toYYYYMM(bucket)
+ORDER BY (route, httpMethod, statusCode, bucket)
+TTL bucket + INTERVAL ${rollup_retention_days} DAY DELETE;
+
+CREATE TABLE IF NOT EXISTS ${database}.api_logs_route_1h (
+    bucket             DateTime('UTC'),
+    httpMethod         LowCardinality(String),
+    route              LowCardinality(String),
+    statusCode         UInt16,
+    requests           SimpleAggregateFunction(sum, Float64),
+    errors             SimpleAggregateFunction(sum, Float64),
+    duration_quantiles AggregateFunction(quantilesTDigestWeighted(0.5, 0.95, 0.99), Int64, UInt64)
+) ENGINE = AggregatingMergeTree
+PARTITION BY toYYYYMM(bucket)
+ORDER BY (route, httpMethod, statusCode, bucket)
+TTL bucket + INTERVAL ${rollup_retention_days} DAY DELETE;
+
+TRUNCATE TABLE ${database}.api_logs_route_1m;
+TRUNCATE TABLE ${database}.api_logs_route_1h;
+
+CREATE MATERIALIZED VIEW ${database}.api_logs_route_1m_mv TO ${database}.api_logs_route_1m AS
+SELECT
+    toStartOfMinute(`timestamp`) AS bucket,
+    httpMethod,
+    route,
+    statusCode,
+    sum(sampleWeight) AS requests,
+    sumIf(sampleWeight, statusCode >= 400) AS errors,
+    quantilesTDigestWeightedState(0.5, 0.95, 0.99)(duration, toUInt64(round(sampleWeight * 100))) AS duration_quantiles
+FROM ${database}.api_logs
+WHERE `timestamp` >= ${migration_started_at}
+GROUP BY bucket, httpMethod, route, statusCode;
+
+CREATE MATERIALIZED VIEW ${database}.api_logs_route_1h_mv TO ${database}.api_logs_route_1h AS
+SELECT
+    toStartOfHour(`timestamp`) AS bucket,
+    httpMethod,
+    route,
+    statusCode,
+    sum(sampleWeight) AS requests,
+    sumIf(sampleWeight, statusCode >= 400) AS errors,
+    quantilesTDigestWeightedState(0.5, 0.95, 0.99)(duration, toUInt64(round(sampleWeight * 100))) AS duration_quantiles
+FROM ${database}.api_logs
+WHERE `timestamp` >= ${migration_started_at}
+GROUP BY bucket, httpMethod, route, statusCode;
+
+-- Backfill of the rows before the cutoff.
+INSERT INTO ${database}.api_logs_route_1m
+SELECT
+    toStartOfMinute(`timestamp`) AS bucket,
+    httpMethod,
+    route,
+    statusCode,
+    sum(sampleWeight) AS requests,
+    sumIf(sampleWeight, statusCode >= 400) AS errors,
+    quantilesTDigestWeightedState(0.5, 0.95, 0.99)(duration, toUInt64(round(sampleWeight * 100))) AS duration_quantiles
+FROM ${database}.api_logs
+WHERE `timestamp` < ${migration_started_at}
+GROUP BY bucket, httpMethod, route, statusCode;
+
+INSERT INTO ${database}.api_logs_route_1h
+SELECT
+    toStartOfHour(`timestamp`) AS bucket,
+    httpMethod,
+    route,
+    statusCode,
+    sum(sampleWeight) AS requests,
+    sumIf(sampleWeight, statusCode >= 400) AS errors,
+    quantilesTDigestWeightedState(0.5, 0.95, 0.99)(duration, toUInt64(round(sampleWeight * 100))) AS duration_quantiles
+FROM ${database}.api_logs
+WHERE `timestamp` < ${migration_started_at}
+GROUP BY bucket, httpMethod, route, statusCode;
@@ -0,0 +1,19 @@
+-- api_logs_refined becomes a ReplacingMergeTree keyed by the source log, so re-running
+-- refinement over the same logs collapses to one row per log (latest refinedAt wins).
+-- The refined id is derived from originalLogId, so keying on originalLogId is equivalent and
+-- also deduplicates rows written before ids were deterministic.
+CREATE TABLE IF NOT EXISTS ${database}.api_logs_refined_replacing (
+    id            String,
+    originalLogId String,
+    userType      LowCardinality(String),
+    durationColor LowCardinality(String),
+    refinedAt     DateTime64(3, 'UTC') DEFAULT now64(3)
+) ENGINE = ReplacingMergeTree(refinedAt)
+ORDER BY originalLogId;
+
+INSERT INTO ${database}.api_logs_refined_replacing (id, originalLogId, userType, durationColor)
+SELECT id, originalLogId, userType, durationColor FROM ${database}.api_logs_refined;
+
+EXCHANGE TABLES ${database}.api_logs_refined AND ${database}.api_logs_refined_replacing;
+
+DROP TABLE IF EXISTS ${database}.api_logs_refined_replacing;
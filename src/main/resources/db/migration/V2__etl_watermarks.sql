@@ -0,0 +1,6 @@
+CREATE TABLE etl_watermarks (
+                                job           VARCHAR(64) PRIMARY KEY,
+                                watermark     TIMESTAMP WITH TIME ZONE NOT NULL,
+                                last_run_rows BIGINT NOT NULL DEFAULT 0,
+                                updated_at    TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,116 @@
+package com.example.social.bootstrap;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.repository.ClickHouseLogWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ClickHouseMigratorTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AppProperties props = new AppProperties();
+
+    @BeforeEach
+    void setUp() {
+        props.getClickhouse().setDatabase("logs");
+        props.getClickhouse().getMigration().setFailOnError(true);
+        props.getClickhouse().getMigration().setRetentionDays(7);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(ClickHouseLogWriter.API_LOG_COLUMNS);
+    }
+
+    @Test
+    void appliesEveryScriptInOrderWithPlaceholdersResolved() {
+        new ClickHouseMigrator(jdbcTemplate, props).migrate();
+
+        List<String> statements = executed();
+        assertThat(statements.getFirst()).contains("logs.clickhouse_schema_history");
+        assertThat(statements).noneMatch(sql -> sql.contains("${"));
+        assertThat(statements).noneMatch(sql -> sql.startsWith("--") || sql.endsWith(";"));
+        assertThat(statements.get(1)).startsWith("CREATE TABLE IF NOT EXISTS logs.api_logs (").contains("INTERVAL 7 DAY");
+        assertThat(statements).anyMatch(sql -> sql.startsWith("EXCHANGE TABLES logs.api_logs AND logs.api_logs_rebuild"));
+
+        ArgumentCaptor<Object> versions = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(4)).update(eq("INSERT INTO logs.clickhouse_schema_history (version, description, checksum) VALUES (?, ?, ?)"),
+                versions.capture(), any(), any());
+        assertThat(versions.getAllValues()).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void rollupViewsAndBackfillSplitAtOneCutoff() {
+        new ClickHouseMigrator(jdbcTemplate, props).migrate();
+
+        List<String> rollups = executed().stream().filter(sql -> sql.contains("FROM logs.api_logs\n")).toList();
+        Pattern cutoff = Pattern.compile("`timestamp` (>=|<) (toDateTime64\\('[^']+', 3, 'UTC'\\))");
+        List<Matcher> matches = rollups.stream().map(cutoff::matcher).filter(Matcher::find).toList();
+
+        assertThat(matches).hasSize(4);
+        assertThat(matches).extracting(m -> m.group(2)).containsOnly(matches.getFirst().group(2));
+        assertThat(rollups).filteredOn(sql -> sql.startsWith("CREATE MATERIALIZED VIEW")).hasSize(2).allMatch(sql -> sql.contains("`timestamp` >= "));
+        assertThat(rollups).filteredOn(sql -> sql.startsWith("INSERT INTO logs.api_logs_route_")).hasSize(2).allMatch(sql -> sql.contains("`timestamp` < "));
+    }
+
+    @Test
+    void skipsAppliedVersions() {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int version : new int[]{1, 2, 3}) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt("version")).thenReturn(version);
+                when(rs.getLong("checksum")).thenReturn(0L);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        new ClickHouseMigrator(jdbcTemplate, props).migrate();
+
+        assertThat(executed()).noneMatch(sql -> sql.contains("logs.api_logs_rebuild") || sql.contains("api_logs_route_1m"));
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(4), any(), any());
+    }
+
+    @Test
+    void failsWhenApiLogsLacksAWriterColumn() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(ClickHouseLogWriter.API_LOG_COLUMNS.stream().filter(c -> !c.equals("sampleWeight")).toList());
+
+        assertThatThrownBy(() -> new ClickHouseMigrator(jdbcTemplate, props).migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .rootCause().hasMessageContaining("[sampleWeight]");
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        props.getClickhouse().getMigration().setEnabled(false);
+
+        new ClickHouseMigrator(jdbcTemplate, props).migrate();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.social.domain.repository;
+
+import com.example.social.domain.entity.ApiLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowBinaryEncodingTest {
+
+    @Test
+    void encodesStringsAsVarintLengthPrefixedUtf8() {
+        RowBinaryBuffer buffer = new RowBinaryBuffer(1);
+        String[] values = {"GET", "", "güzel", "€", "😀 emoji", "x".repeat(300)};
+        for (String value : values) {
+            buffer.putString(value);
+        }
+        buffer.putString(null);
+
+        Reader reader = new Reader(buffer);
+        for (String value : values) {
+            assertThat(reader.string()).isEqualTo(value);
+        }
+        assertThat(reader.string()).isEmpty();
+        assertThat(reader.remaining()).isZero();
+    }
+
+    @Test
+    void replacesLoneSurrogatesWithAQuestionMark() {
+        RowBinaryBuffer buffer = new RowBinaryBuffer(16);
+        buffer.putString("a\uD800b");
+
+        assertThat(new Reader(buffer).string()).isEqualTo("a?b");
+    }
+
+    @Test
+    void encodesFixedWidthValuesLittleEndian() {
+        RowBinaryBuffer buffer = new RowBinaryBuffer(4);
+        buffer.putUInt16(65_535).putInt64(-2L).putFloat64(0.125).putBool(true).putVarUInt(300);
+
+        Reader reader = new Reader(buffer);
+        assertThat(reader.uint16()).isEqualTo(65_535);
+        assertThat(reader.int64()).isEqualTo(-2L);
+        assertThat(reader.float64()).isEqualTo(0.125);
+        assertThat(reader.bool()).isTrue();
+        assertThat(reader.varUInt()).isEqualTo(300);
+    }
+
+    @Test
+    void encodesAnApiLogInColumnOrder() {
+        Instant timestamp = Instant.parse("2026-10-17T10:15:30.123Z");
+        ApiLog log = ApiLog.builder()
+                .id("log-1")
+                .timestamp(timestamp)
+                .httpMethod("POST")
+                .path("/api/posts/42")
+                .route("/api/posts/{id}")
+                .statusCode(503)
+                .duration(1234)
+                .requestHeader("application/json")
+                .requestBody("{\"a\":\"ü\"}")
+                .requestBodyLz4(new byte[]{1, 2, 3})
+                .requestBodyLength(11)
+                .requestBodyTruncated(true)
+                .responseHeader("text/plain")
+                .responseBody(null)
+                .responseBodyLength(0)
+                .userId("user-7")
+                .clientIp("10.0.0.1")
+                .userAgent("curl/8.5")
+                .sampleWeight(10.0)
+                .build();
+        RowBinaryBuffer buffer = new RowBinaryBuffer(64);
+
+        ClickHouseRowBinaryLogRepository.encode(buffer, log);
+
+        Reader reader = new Reader(buffer);
+        assertThat(reader.string()).isEqualTo("log-1");
+        assertThat(reader.int64()).isEqualTo(timestamp.toEpochMilli());
+        assertThat(reader.string()).isEqualTo("POST");
+        assertThat(reader.string()).isEqualTo("/api/posts/42");
+        assertThat(reader.string()).isEqualTo("/api/posts/{id}");
+        assertThat(reader.uint16()).isEqualTo(503);
+        assertThat(reader.int64()).isEqualTo(1234);
+        assertThat(reader.string()).isEqualTo("application/json");
+        assertThat(reader.string()).isEqualTo("{\"a\":\"ü\"}");
+        assertThat(reader.bytes()).containsExactly(1, 2, 3);
+        assertThat(reader.int64()).isEqualTo(11);
+        assertThat(reader.bool()).isTrue();
+        assertThat(reader.string()).isEqualTo("text/plain");
+        assertThat(reader.string()).isEmpty();
+        assertThat(reader.bytes()).isEmpty();
+        assertThat(reader.int64()).isZero();
+        assertThat(reader.bool()).isFalse();
+        assertThat(reader.string()).isEqualTo("user-7");
+        assertThat(reader.string()).isEqualTo("10.0.0.1");
+        assertThat(reader.string()).isEqualTo("curl/8.5");
+        assertThat(reader.float64()).isEqualTo(10.0);
+        assertThat(reader.remaining()).isZero();
+        assertThat(reader.fields).isEqualTo(ClickHouseLogWriter.API_LOG_COLUMNS.size());
+    }
+
+    @Test
+    void generatesAnIdForLogsWithout() {
+        RowBinaryBuffer buffer = new RowBinaryBuffer(64);
+
+        ClickHouseRowBinaryLogRepository.encode(buffer, ApiLog.builder().timestamp(Instant.EPOCH).build());
+
+        assertThat(new Reader(buffer).string()).hasSize(36);
+    }
+
+    private static final class Reader {
+        private final ByteBuffer in;
+        private int fields;
+
+        Reader(RowBinaryBuffer buffer) {
+            this.in = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.size())).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long varUInt() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.get() & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        byte[] bytes() {
+            fields++;
+            byte[] value = new byte[(int) varUInt()];
+            in.get(value);
+            return value;
+        }
+
+        String string() {
+            return new String(bytes(), StandardCharsets.UTF_8);
+        }
+
+        int uint16() {
+            fields++;
+            return in.getShort() & 0xFFFF;
+        }
+
+        long int64() {
+            fields++;
+            return in.getLong();
+        }
+
+        double float64() {
+            fields++;
+            return in.getDouble();
+        }
+
+        boolean bool() {
+            fields++;
+            return in.get() != 0;
+        }
+
+        int remaining() {
+            return in.remaining();
+        }
+    }
+}
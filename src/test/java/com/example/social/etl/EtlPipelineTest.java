@@ -0,0 +1,104 @@
+package com.example.social.etl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EtlPipelineTest {
+
+    @Test
+    void transformsAndWritesEveryRecordOnce() throws Exception {
+        EtlPipeline<Integer, Integer> pipeline = new EtlPipeline<>("test", 7, 2, 3);
+        Set<Integer> written = ConcurrentHashMap.newKeySet();
+
+        EtlStats stats = pipeline.run(rows -> {
+            for (int i = 0; i < 1000; i++) {
+                rows.accept(i);
+            }
+        }, batch -> batch.stream().map(i -> -i).toList(), batch -> {
+            synchronized (written) {
+                batch.forEach(i -> assertThat(written.add(i)).isTrue());
+            }
+        });
+
+        assertThat(stats.recordsRead()).isEqualTo(1000);
+        assertThat(stats.recordsWritten()).isEqualTo(1000);
+        assertThat(written).hasSize(1000).allMatch(i -> i <= 0);
+    }
+
+    @Test
+    void aBlockedWriterStopsTheSourceWithinTheInFlightBound() throws Exception {
+        EtlPipeline<Integer, Integer> pipeline = new EtlPipeline<>("test", 10, 2, 2);
+        AtomicLong emitted = new AtomicLong();
+        CountDownLatch release = new CountDownLatch(1);
+        int records = 10_000;
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<EtlStats> run = executor.submit(() -> pipeline.run(rows -> {
+                for (int i = 0; i < records; i++) {
+                    rows.accept(i);
+                    emitted.incrementAndGet();
+                }
+            }, batch -> batch, batch -> release.await()));
+
+            long previous = -1;
+            while (emitted.get() != previous) {
+                previous = emitted.get();
+                Thread.sleep(200);
+            }
+            assertThat(previous).isPositive().isLessThanOrEqualTo(pipeline.maxInFlightRecords());
+            assertThat(run.isDone()).isFalse();
+
+            release.countDown();
+            EtlStats stats = run.get(30, TimeUnit.SECONDS);
+            assertThat(stats.recordsWritten()).isEqualTo(records);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aFailingWriterCancelsTheSourceAndFailsTheRun() {
+        EtlPipeline<Integer, Integer> pipeline = new EtlPipeline<>("test", 10, 2, 2);
+        AtomicLong emitted = new AtomicLong();
+
+        assertThatThrownBy(() -> pipeline.run(rows -> {
+            for (int i = 0; ; i++) {
+                rows.accept(i);
+                emitted.incrementAndGet();
+            }
+        }, batch -> batch, batch -> {
+            throw new IOException("sink down");
+        })).isInstanceOf(IOException.class).hasMessage("sink down");
+
+        assertThat(pipeline.failed()).isTrue();
+        assertThat(emitted.get()).isLessThanOrEqualTo(pipeline.maxInFlightRecords() + pipeline.batchSize());
+    }
+
+    @Test
+    void aFailingTransformFailsTheRun() {
+        EtlPipeline<Integer, Integer> pipeline = new EtlPipeline<>("test", 10, 2, 2);
+
+        assertThatThrownBy(() -> pipeline.run(rows -> {
+            for (int i = 0; i < 100; i++) {
+                rows.accept(i);
+            }
+        }, batch -> {
+            throw new IllegalArgumentException("bad row");
+        }, batch -> List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
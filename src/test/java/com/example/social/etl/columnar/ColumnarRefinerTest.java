@@ -0,0 +1,88 @@
+package com.example.social.etl.columnar;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.domain.entity.ApiLogRefined;
+import com.example.social.etl.refine.RangeBucketRule;
+import com.example.social.etl.refine.RefinementRuleSet;
+import com.example.social.etl.refine.SuffixParityRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarRefinerTest {
+    private static final List<String> USER_IDS = List.of(
+            "user-12", "user-7", "user-0", "user--3", "user-+4", "user-+", "user--", "user-", "user", "",
+            "user-12-eu", "user-13-eu", "user-2147483647", "user-2147483648", "user--2147483648", "user--2147483649",
+            "user-99999999999999999999", "user-1x", "user- 1", "kullanıcı-41", "user-٣", "user-٣-x", "üser-8");
+    private static final List<Long> DURATIONS = List.of(
+            Long.MIN_VALUE, -1L, 0L, 199L, 200L, 399L, 400L, 599L, 600L, 799L, 800L, Long.MAX_VALUE);
+
+    private final RefinementRuleSet rules = RefinementRuleSet.defaults();
+    private final ColumnarRefiner columnar = ColumnarRefiner.compile(rules).orElseThrow();
+
+    @Test
+    void matchesTheRowRulesOnEdgeCases() {
+        List<ApiLog> logs = new ArrayList<>();
+        int n = 0;
+        for (String userId : USER_IDS) {
+            for (long duration : DURATIONS) {
+                logs.add(log("log-" + n++ + "-ğ", userId, duration));
+            }
+        }
+        logs.add(log("log-null-user", null, 250));
+
+        assertParity(logs, 16);
+    }
+
+    @Test
+    void matchesTheRowRulesOnRandomRows() {
+        Random random = new Random(42);
+        List<ApiLog> logs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String userId = random.nextInt(10) == 0 ? null : "user-" + (random.nextInt(2_000_001) - 1_000_000);
+            logs.add(log(UUID.nameUUIDFromBytes(new byte[]{(byte) i, (byte) (i >> 8)}).toString(), userId, random.nextInt(1_200)));
+        }
+
+        assertParity(logs, 100);
+    }
+
+    @Test
+    void onlyCompilesTheDefaultRuleShape() {
+        assertThat(ColumnarRefiner.compile(new RefinementRuleSet(List.of(
+                new SuffixParityRule("userType", "userId", '-', "E", "O", "U"))))).isEmpty();
+        assertThat(ColumnarRefiner.compile(new RefinementRuleSet(List.of(
+                new SuffixParityRule("userType", "clientIp", '.', "E", "O", "U"),
+                new RangeBucketRule("durationColor", "duration", List.of(10L), List.of("a", "b")))))).isEmpty();
+    }
+
+    /** Refines {@code logs} through a recycled batch of {@code batchSize} rows and compares row by row. */
+    private void assertParity(List<ApiLog> logs, int batchSize) {
+        RefinementBatch batch = new RefinementBatch(batchSize);
+        List<ApiLogRefined> refined = new ArrayList<>();
+        for (ApiLog log : logs) {
+            batch.add(log.getId(), log.getUserId(), log.getDuration());
+            if (batch.isFull()) {
+                refined.addAll(columnar.refine(batch).toRefined());
+                batch.clear();
+            }
+        }
+        refined.addAll(columnar.refine(batch).toRefined());
+
+        assertThat(refined).hasSize(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertThat(refined.get(i))
+                    .as("userId=%s duration=%d", logs.get(i).getUserId(), logs.get(i).getDuration())
+                    .usingRecursiveComparison()
+                    .isEqualTo(rules.refine(logs.get(i)));
+        }
+    }
+
+    private static ApiLog log(String id, String userId, long duration) {
+        return ApiLog.builder().id(id).userId(userId).duration(duration).build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.social.etl.refine;
+
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.etl.columnar.ColumnarRefiner;
+import com.example.social.etl.columnar.RefinementBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuffixParityRuleTest {
+    private static final String EVEN = "CIFT", ODD = "TEK", UNKNOWN = "BILINMIYOR";
+
+    private final RefinementRuleSet rules = RefinementRuleSet.defaults();
+    private final SuffixParityRule rule = (SuffixParityRule) rules.rules().getFirst();
+
+    @Test
+    void theRowRuleAndTheColumnarRefinerAgreeOnAsciiOnlyDigits() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("user-12", EVEN);
+        expected.put("user-7", ODD);
+        expected.put("user--3", UNKNOWN); // the second '-' ends an empty number
+        expected.put("user-+4", EVEN);
+        expected.put("user-13-eu", ODD);
+        expected.put("user-", UNKNOWN);
+        expected.put("user-+", UNKNOWN);
+        expected.put("user", UNKNOWN);
+        expected.put("user-1x", UNKNOWN);
+        expected.put("user-2147483648", UNKNOWN);
+        // Arabic-Indic, Devanagari and fullwidth digits: Integer.parseInt takes them, toInt32OrNull does not
+        expected.put("user-٣", UNKNOWN);
+        expected.put("user-४२", UNKNOWN);
+        expected.put("user-１２", UNKNOWN);
+        expected.put("user-1٣", UNKNOWN);
+        expected.put("user-+٣", UNKNOWN);
+
+        ColumnarRefiner columnar = ColumnarRefiner.compile(rules).orElseThrow();
+        RefinementBatch batch = new RefinementBatch(expected.size());
+        expected.keySet().forEach(userId -> batch.add("log-" + userId, userId, 0));
+        var refined = columnar.refine(batch).toRefined();
+
+        int row = 0;
+        for (var entry : expected.entrySet()) {
+            assertThat(rule.apply(ApiLog.builder().userId(entry.getKey()).build())).as("row rule, %s", entry.getKey()).isEqualTo(entry.getValue());
+            assertThat(refined.get(row++).getUserType()).as("columnar, %s", entry.getKey()).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    void theServerSideFormsOnlyParseAsciiDigits() {
+        // neither engine runs here; pin the guards that keep them in line with the row rule
+        assertThat(rule.clickHouseExpression()).contains("toInt32OrNull(splitByChar('-', userId)[2])");
+        assertThat(rule.painless())
+                .contains("(c < 48 || c > 57) && !(i == 0 && (c == 45 || c == 43))")
+                .contains("if (ascii) {");
+    }
+}
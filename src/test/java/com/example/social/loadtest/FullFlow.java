@@ -0,0 +1,110 @@
+package com.example.social.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The user journey of {@code src/docs/Social API — Full Flow Runner.postman_collection.json}:
+ * signup → login → create post → list posts → like → comment. Every request is timed into
+ * {@link LoadStats} under {@code "<METHOD> <route>"}; a step answering with an unexpected status
+ * aborts the rest of that flow, since later steps depend on its result.
+ */
+class FullFlow {
+    private static final String BOUNDARY = "load-test-boundary";
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String runId;
+    private final byte[] image;
+    private final Duration timeout;
+    private final AtomicLong users = new AtomicLong();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    static final class StepFailedException extends RuntimeException {
+        StepFailedException(String step, int status) {
+            super(step + " answered " + status, null, false, false);
+        }
+    }
+
+    FullFlow(HttpClient http, String baseUrl, String runId, int imageBytes, Duration timeout) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.runId = runId;
+        this.image = new byte[imageBytes];
+        new SplittableRandom(imageBytes).nextBytes(this.image);
+        this.timeout = timeout;
+    }
+
+    void run(long flow, LoadStats stats) throws Exception {
+        String username = "lt-" + runId + "-" + users.incrementAndGet();
+
+        call(stats, "POST /api/auth/signup", 201, json("/api/auth/signup", null,
+                "{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, PASSWORD)));
+
+        String token = call(stats, "POST /api/auth/login", 200, json("/api/auth/login", null,
+                "{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, PASSWORD)))
+                .get("accessToken").asString();
+
+        long postId = call(stats, "POST /api/posts", 201, multipart("/api/posts", token, "load test post " + flow))
+                .get("id").asLong();
+
+        call(stats, "GET /api/posts", 200, request("/api/posts", token).GET());
+        call(stats, "POST /api/posts/{id}/likes", 200, request("/api/posts/" + postId + "/likes", token)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        call(stats, "POST /api/posts/{id}/comments", 200, json("/api/posts/" + postId + "/comments", token,
+                "{\"content\":\"comment from flow %d\"}".formatted(flow)));
+    }
+
+    private JsonNode call(LoadStats stats, String step, int expectedStatus, HttpRequest.Builder request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            stats.record(step, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean ok = response.statusCode() == expectedStatus;
+        stats.record(step, System.nanoTime() - start, ok);
+        if (!ok) {
+            throw new StepFailedException(step, response.statusCode());
+        }
+        return response.body().length == 0 ? null : jsonMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder json(String path, String token, String body) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder multipart(String path, String token, String description) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 512);
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"load.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"description\"\r\n\r\n"
+                + description + "\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+}
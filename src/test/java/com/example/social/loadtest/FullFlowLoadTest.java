@@ -0,0 +1,126 @@
+package com.example.social.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-model load test of the REST API: {@link FullFlow}s start at a fixed rate, each on its own virtual
+ * thread, up to {@code loadtest.users} at once; a start finding every virtual user busy is counted as
+ * missed rather than delayed, so a slow server cannot lower the offered load. Runs the app on a random
+ * port with the infrastructure-free {@code local} profile plus {@code loadtest}. Off by default:
+ * <pre>
+ * mvn test -Dtest=FullFlowLoadTest -Dloadtest=true -Dloadtest.rate=20 -Dloadtest.duration-seconds=60
+ * </pre>
+ * Histograms go to {@code target/loadtest/<endpoint>.hgrm}. The test fails when more than
+ * {@code loadtest.max-error-rate} of the requests fail or, if set, when any endpoint's p99 exceeds
+ * {@code loadtest.max-p99-millis}.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"local", "loadtest"})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class FullFlowLoadTest {
+    private final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "20"));
+    private final int users = Integer.getInteger("loadtest.users", 200);
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+    private final Duration timeout = Duration.ofSeconds(Integer.getInteger("loadtest.timeout-seconds", 30));
+    private final int imageBytes = Integer.getInteger("loadtest.image-bytes", 16 * 1024);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private final double maxP99Millis = Double.parseDouble(System.getProperty("loadtest.max-p99-millis", "0"));
+    private final Path outputDirectory = Path.of(System.getProperty("loadtest.output-directory", "target/loadtest"));
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void fullFlowUnderLoad() throws Exception {
+        String baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+        log.info("Load test against {}: rate={} flows/s, users={}, warmup={}, duration={}", baseUrl, rate, users, warmup, duration);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(timeout)
+                     .executor(executor)
+                     .build()) {
+            FullFlow flow = new FullFlow(http, baseUrl, Long.toString(System.currentTimeMillis(), 36), imageBytes, timeout);
+            drive(flow, executor, warmup, new LoadStats());
+
+            LoadStats stats = new LoadStats();
+            long start = System.nanoTime();
+            drive(flow, executor, duration, stats);
+            Map<String, LoadStats.Summary> summaries = stats.report(Duration.ofNanos(System.nanoTime() - start), outputDirectory);
+
+            long requests = summaries.entrySet().stream().filter(e -> !e.getKey().equals(LoadStats.FLOW))
+                    .mapToLong(e -> e.getValue().requests()).sum();
+            long errors = summaries.entrySet().stream().filter(e -> !e.getKey().equals(LoadStats.FLOW))
+                    .mapToLong(e -> e.getValue().errors()).sum();
+            assertThat(requests).as("requests sent").isPositive();
+            assertThat((double) errors / requests).as("error rate").isLessThanOrEqualTo(maxErrorRate);
+            if (maxP99Millis > 0) {
+                summaries.values().stream().filter(s -> !s.endpoint().equals(LoadStats.FLOW)).forEach(s ->
+                        assertThat(s.p99Millis()).as("p99 of " + s.endpoint()).isLessThanOrEqualTo(maxP99Millis));
+            }
+        }
+    }
+
+    /** Starts flows at {@link #rate} for {@code length}, then waits for the ones in flight to finish. */
+    private void drive(FullFlow flow, ExecutorService executor, Duration length, LoadStats stats) throws InterruptedException {
+        Semaphore virtualUsers = new Semaphore(users);
+        long interval = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!virtualUsers.tryAcquire()) {
+                stats.missedStarts.increment();
+                continue;
+            }
+            long index = i;
+            executor.execute(() -> {
+                boolean ok = false;
+                try {
+                    flow.run(index, stats);
+                    ok = true;
+                } catch (FullFlow.StepFailedException e) {
+                    log.debug("Flow {} stopped: {}", index, e.getMessage());
+                } catch (Exception e) {
+                    log.debug("Flow {} failed: {}", index, e.toString());
+                } finally {
+                    stats.record(LoadStats.FLOW, System.nanoTime() - scheduled, ok);
+                    virtualUsers.release();
+                }
+            });
+        }
+        if (!virtualUsers.tryAcquire(users, timeout.toSeconds() * 10, TimeUnit.SECONDS)) {
+            log.warn("{} flows still running after the drain timeout", users - virtualUsers.availablePermits());
+        } else {
+            virtualUsers.release(users);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.social.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) and error counts, plus the
+ * end-to-end {@code flow} histogram, which is measured from each flow's scheduled start and so
+ * includes any time it waited behind a saturated server.
+ */
+@Slf4j
+class LoadStats {
+    static final String FLOW = "flow";
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    final LongAdder missedStarts = new LongAdder();
+
+    record Summary(String endpoint, long requests, long errors, double throughput,
+                   double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    private record Endpoint(Histogram latency, LongAdder errors) {
+        Endpoint() {
+            this(new ConcurrentHistogram(1, HIGHEST_MICROS, 3), new LongAdder());
+        }
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        stats.latency().recordValue(Math.min(HIGHEST_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos))));
+        if (!ok) {
+            stats.errors().increment();
+        }
+    }
+
+    Map<String, Summary> summarize(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        Map<String, Summary> summaries = new TreeMap<>();
+        endpoints.forEach((name, stats) -> {
+            Histogram h = stats.latency();
+            summaries.put(name, new Summary(name, h.getTotalCount(), stats.errors().sum(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue())));
+        });
+        return summaries;
+    }
+
+    /** Logs the summary table and writes one {@code <endpoint>.hgrm} percentile distribution per endpoint. */
+    Map<String, Summary> report(Duration elapsed, Path directory) throws IOException {
+        Map<String, Summary> summaries = summarize(elapsed);
+        StringBuilder table = new StringBuilder("\n%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n"
+                .formatted("endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Summary s : summaries.values()) {
+            table.append("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n".formatted(s.endpoint(), s.requests(), s.errors(),
+                    s.throughput(), s.p50Millis(), s.p90Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis()));
+        }
+        table.append("missed flow starts (all virtual users busy): ").append(missedStarts.sum());
+        log.info("Load test over {} s:{}", elapsed.toSeconds(), table);
+
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Path file = directory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().latency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return summaries;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.social.logging;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyCompressionTest {
+    private static final int THRESHOLD = 1024;
+
+    private final BodyCompression compression = new BodyCompression(properties());
+
+    @Test
+    void comparesTheThresholdWithTheEncodedByteLength() {
+        // 600 chars, 1200 UTF-8 bytes
+        String body = "ü".repeat(600);
+        assertThat(body.length()).isLessThan(THRESHOLD);
+        assertThat(body.getBytes(StandardCharsets.UTF_8).length).isGreaterThanOrEqualTo(THRESHOLD);
+        ApiLog log = ApiLog.builder().responseBody(body).build();
+
+        compression.compress(log);
+
+        assertThat(log.getResponseBody()).isNull();
+        assertThat(log.getResponseBodyLz4()).isNotNull();
+        compression.decompress(log);
+        assertThat(log.getResponseBody()).isEqualTo(body);
+    }
+
+    @Test
+    void leavesBodiesBelowTheThresholdAlone() {
+        String body = "x".repeat(THRESHOLD - 1);
+        ApiLog log = ApiLog.builder().requestBody(body).build();
+
+        compression.compress(log);
+
+        assertThat(log.getRequestBody()).isEqualTo(body);
+        assertThat(log.getRequestBodyLz4()).isNull();
+    }
+
+    private static AppProperties properties() {
+        AppProperties props = new AppProperties();
+        props.getLogging().getCompression().setEnabled(true);
+        props.getLogging().getCompression().setThresholdBytes(THRESHOLD);
+        return props;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.social.logging.capture;
+
+import com.example.social.config.AppProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapturingResponseWrapperTest {
+    private static final String BODY = "{\"content\":\"güzel ✓\"}";
+
+    private final CaptureBufferPool pool = new CaptureBufferPool(new AppProperties());
+
+    @Test
+    void decodesStreamedBytesAsUtf8WhenNoCharsetIsDeclared() throws IOException {
+        CapturingResponseWrapper response = wrap(new MockHttpServletResponse());
+        response.setContentType("application/json");
+
+        response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.capturedBody()).isEqualTo(BODY);
+        assertThat(response.originalLength()).isEqualTo(BODY.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void decodesStreamedBytesWithTheDeclaredCharset() throws IOException {
+        CapturingResponseWrapper response = wrap(new MockHttpServletResponse());
+        response.setContentType("text/plain;charset=ISO-8859-1");
+
+        response.getOutputStream().write("güzel".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertThat(response.capturedBody()).isEqualTo("güzel");
+    }
+
+    @Test
+    void decodesWriterOutputWithTheWriterCharset() throws IOException {
+        CapturingResponseWrapper response = wrap(new MockHttpServletResponse());
+        response.setContentType("text/plain");
+
+        response.getWriter().write("güzel");
+        response.flushCapture();
+
+        assertThat(response.capturedBody()).isEqualTo("güzel");
+    }
+
+    private CapturingResponseWrapper wrap(MockHttpServletResponse response) {
+        return new CapturingResponseWrapper(response, pool, 1024, contentType -> false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonFileLogSinkTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesOneReadableDocumentPerLine() throws IOException {
+        ApiLog log = ApiLog.builder()
+                .id("log-1")
+                .timestamp(Instant.parse("2026-10-17T10:15:30.123Z"))
+                .httpMethod("POST")
+                .path("/api/posts")
+                .statusCode(201)
+                .duration(12)
+                .requestBody("{\"content\":\"çok \\\"güzel\\\"\\n😀\"}\u0001")
+                .requestBodyLz4(new byte[]{4, 34, 77, 24})
+                .userId("user-7")
+                .sampleWeight(2.5)
+                .build();
+        NdjsonFileLogSink sink = sink(1024 * 1024);
+
+        sink.write(List.of(log, log));
+        sink.close();
+
+        List<String> lines = Files.readAllLines(onlyFile(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(2);
+        assertThat(jsonMapper.readValue(lines.getFirst(), ApiLog.class)).usingRecursiveComparison().isEqualTo(log);
+    }
+
+    @Test
+    void rollsOnceAFileReachesMaxBytes() throws IOException {
+        NdjsonFileLogSink sink = sink(2048);
+        List<ApiLog> logs = IntStream.range(0, 100)
+                .mapToObj(i -> ApiLog.builder().id("log-" + i).path("/api/posts/" + i).responseBody("ğüşiöç-" + i).build())
+                .toList();
+
+        sink.write(logs);
+        sink.close();
+
+        List<Path> files = files();
+        assertThat(files).hasSizeGreaterThan(1);
+        List<String> ids = new ArrayList<>();
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            long lastLine = lines.getLast().getBytes(StandardCharsets.UTF_8).length + 1;
+            assertThat(Files.size(file) - lastLine).as("bytes before the last line of %s", file).isLessThan(2048);
+            lines.forEach(line -> ids.add(jsonMapper.readValue(line, ApiLog.class).getId()));
+        }
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(logs.stream().map(ApiLog::getId).toList());
+    }
+
+    private NdjsonFileLogSink sink(long maxFileBytes) {
+        AppProperties props = new AppProperties();
+        props.getLogging().getFile().setDirectory(directory.toString());
+        props.getLogging().getFile().setMaxFileBytes(maxFileBytes);
+        return new NdjsonFileLogSink(props, jsonMapper);
+    }
+
+    private Path onlyFile() throws IOException {
+        List<Path> files = files();
+        assertThat(files).hasSize(1);
+        return files.getFirst();
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
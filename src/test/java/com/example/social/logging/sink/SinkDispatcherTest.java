@@ -0,0 +1,112 @@
+package com.example.social.logging.sink;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import com.example.social.logging.spool.LogSpool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SinkDispatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aChunkThatTimesOutInTheQueueIsSpooledAndNeverWritten() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        LogSink sink = sink("blocking", batch -> {
+            started.countDown();
+            release.await();
+            batch.forEach(log -> written.add(log.getId()));
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        try (LogSpool spool = new LogSpool("blocking", directory, 1 << 20)) {
+            SinkDispatcher dispatcher = new SinkDispatcher(sink, config(), spool, registry);
+            dispatcher.dispatch(List.of(log("running")));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            dispatcher.dispatch(List.of(log("queued")));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!spool.hasPending() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            dispatcher.shutdown(5000);
+
+            assertThat(written).containsExactly("running");
+            assertThat(spool.read(10).records()).extracting(ApiLog::getId).containsExactly("queued");
+            assertThat(registry.get("apilog.sink.records").counter().count()).isEqualTo(1);
+            assertThat(registry.get("apilog.sink.errors").counter().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void aStartedWriteOutlivingTheTimeoutIsNotSpooled() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        LogSink sink = sink("slow", batch -> {
+            Thread.sleep(300);
+            batch.forEach(log -> written.add(log.getId()));
+        });
+
+        try (LogSpool spool = new LogSpool("slow", directory, 1 << 20)) {
+            SinkDispatcher dispatcher = new SinkDispatcher(sink, config(), spool, new SimpleMeterRegistry());
+            dispatcher.dispatch(List.of(log("slow")));
+            Thread.sleep(100);
+            dispatcher.shutdown(5000);
+
+            assertThat(written).containsExactly("slow");
+            assertThat(spool.hasPending()).isFalse();
+        }
+    }
+
+    private interface Writer {
+        void write(List<ApiLog> batch) throws Exception;
+    }
+
+    private static LogSink sink(String name, Writer writer) {
+        return new LogSink() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void write(List<ApiLog> batch) throws Exception {
+                writer.write(batch);
+            }
+        };
+    }
+
+    private static AppProperties.Logging.Sink config() {
+        AppProperties.Logging.Sink config = new AppProperties.Logging.Sink();
+        config.setThreads(1);
+        config.setQueueCapacity(4);
+        config.setBatchSize(10);
+        config.setTimeoutMillis(50);
+        return config;
+    }
+
+    private static ApiLog log(String id) {
+        return ApiLog.builder()
+                .id(id)
+                .timestamp(Instant.ofEpochMilli(1_700_000_000_000L))
+                .httpMethod("GET")
+                .path("/api/posts")
+                .statusCode(200)
+                .sampleWeight(1.0)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.social.logging.spool;
+
+import com.example.social.domain.entity.ApiLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSpoolTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackAppendedRecordsInOrderAcrossSegments() throws IOException {
+        try (LogSpool spool = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            spool.append(logs(0, 200));
+
+            assertThat(segmentFiles()).hasSizeGreaterThan(1);
+            assertThat(spool.hasPending()).isTrue();
+            assertThat(readAll(spool)).extracting(ApiLog::getId).containsExactlyElementsOf(ids(0, 200));
+            assertThat(spool.hasPending()).isFalse();
+        }
+    }
+
+    @Test
+    void acknowledgedRecordsAreNotReadAgainAndConsumedSegmentsAreDeleted() throws IOException {
+        try (LogSpool spool = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            spool.append(logs(0, 200));
+            int segmentsBefore = segmentFiles().size();
+
+            LogSpool.SpoolBatch first = spool.read(150);
+            spool.acknowledge(first);
+
+            assertThat(segmentFiles().size()).isLessThan(segmentsBefore);
+            assertThat(readAll(spool)).extracting(ApiLog::getId).containsExactlyElementsOf(ids(150, 200));
+        }
+    }
+
+    @Test
+    void resumesFromTheCheckpointAfterReopening() throws IOException {
+        try (LogSpool spool = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            spool.append(logs(0, 100));
+            spool.acknowledge(spool.read(40));
+        }
+
+        try (LogSpool reopened = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            assertThat(reopened.hasPending()).isTrue();
+            reopened.append(logs(100, 110));
+            assertThat(readAll(reopened)).extracting(ApiLog::getId).containsExactlyElementsOf(ids(40, 110));
+        }
+    }
+
+    @Test
+    void unacknowledgedReadsAreReplayed() throws IOException {
+        try (LogSpool spool = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            spool.append(logs(0, 10));
+            spool.read(10);
+
+            assertThat(spool.read(10).records()).extracting(ApiLog::getId).containsExactlyElementsOf(ids(0, 10));
+        }
+    }
+
+    @Test
+    void skipsRecordsLargerThanASegment() throws IOException {
+        try (LogSpool spool = new LogSpool("test", directory, SEGMENT_SIZE)) {
+            ApiLog huge = log(-1);
+            huge.setResponseBody("x".repeat(SEGMENT_SIZE));
+            spool.append(List.of(log(0), huge, log(1)));
+
+            assertThat(readAll(spool)).extracting(ApiLog::getId).containsExactly("log-0", "log-1");
+        }
+    }
+
+    private static List<ApiLog> readAll(LogSpool spool) throws IOException {
+        List<ApiLog> all = new ArrayList<>();
+        while (true) {
+            LogSpool.SpoolBatch batch = spool.read(32);
+            if (batch.isEmpty()) {
+                return all;
+            }
+            all.addAll(batch.records());
+            spool.acknowledge(batch);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private static List<ApiLog> logs(int from, int to) {
+        return IntStream.range(from, to).mapToObj(LogSpoolTest::log).toList();
+    }
+
+    private static List<String> ids(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "log-" + i).toList();
+    }
+
+    private static ApiLog log(int i) {
+        return ApiLog.builder()
+                .id("log-" + i)
+                .timestamp(Instant.ofEpochMilli(1_700_000_000_000L + i))
+                .httpMethod("GET")
+                .path("/api/posts/" + i)
+                .statusCode(200)
+                .duration(i)
+                .responseBody("{\"id\":" + i + "}")
+                .sampleWeight(1.0)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.social.runner;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.entity.ApiLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticLogGeneratorTest {
+    private static final Instant END = Instant.parse("2026-10-17T12:00:00Z");
+
+    private final AppProperties.Benchmark.Dataset dataset = new AppProperties.Benchmark.Dataset();
+
+    @Test
+    void sameSeedAndEndGiveTheSameRowsRegardlessOfBatching() {
+        SyntheticLogGenerator first = new SyntheticLogGenerator(dataset, 7, 1_000, END);
+        SyntheticLogGenerator second = new SyntheticLogGenerator(dataset, 7, 1_000, END);
+
+        List<ApiLog> whole = first.batch(0, 1_000);
+        List<ApiLog> pieces = new ArrayList<>(second.batch(0, 333));
+        pieces.addAll(second.batch(333, 667));
+
+        assertThat(pieces).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(whole);
+    }
+
+    @Test
+    void differentSeedsGiveDifferentIds() {
+        List<String> a = new SyntheticLogGenerator(dataset, 7, 100, END).batch(0, 100).stream().map(ApiLog::getId).toList();
+        List<String> b = new SyntheticLogGenerator(dataset, 8, 100, END).batch(0, 100).stream().map(ApiLog::getId).toList();
+
+        assertThat(a).doesNotContainAnyElementsOf(b);
+    }
+
+    @Test
+    void clipsBatchesAtTheRecordCountAndKeepsTimestampsInTheSpan() {
+        SyntheticLogGenerator generator = new SyntheticLogGenerator(dataset, 1, 250, END);
+
+        assertThat(generator.batch(200, 100)).hasSize(50);
+        assertThat(generator.batch(250, 100)).isEmpty();
+        assertThat(generator.batch(0, 250)).allSatisfy(log -> assertThat(log.getTimestamp())
+                .isBetween(END.minusSeconds(dataset.getSpanHours() * 3600L), END));
+    }
+}
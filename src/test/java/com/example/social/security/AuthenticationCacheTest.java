@@ -0,0 +1,145 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AuthenticationCacheTest {
+    private static final CurrentUser ALICE = new CurrentUser(1L, "alice", Role.USER);
+    private static final CurrentUser BOB = new CurrentUser(2L, "bob", Role.USER);
+
+    private AppProperties props;
+    private AuthenticationCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        props = new AppProperties();
+        props.getAuth().getCache().setBroadcast(false);
+        cache = new AuthenticationCache(props, mock(ObjectProvider.class), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachesUntilTheTokenIsEvicted() {
+        cache.put("a1", ALICE, inOneHour(), cache.stamp());
+        cache.put("b1", BOB, inOneHour(), cache.stamp());
+
+        assertThat(cache.get("a1")).isEqualTo(ALICE);
+
+        cache.evictToken("a1");
+
+        assertThat(cache.get("a1")).isNull();
+        assertThat(cache.get("b1")).isEqualTo(BOB);
+    }
+
+    @Test
+    void evictsEveryTokenOfAUser() {
+        cache.put("a1", ALICE, inOneHour(), cache.stamp());
+        cache.put("a2", ALICE, inOneHour(), cache.stamp());
+        cache.put("b1", BOB, inOneHour(), cache.stamp());
+
+        cache.evictUser(ALICE.id());
+
+        assertThat(cache.get("a1")).isNull();
+        assertThat(cache.get("a2")).isNull();
+        assertThat(cache.get("b1")).isEqualTo(BOB);
+    }
+
+    @Test
+    void doesNotCacheALookupThatStartedBeforeAnEviction() {
+        long stamp = cache.stamp();
+        cache.evictUser(ALICE.id());
+
+        cache.put("a1", ALICE, inOneHour(), stamp);
+
+        assertThat(cache.get("a1")).isNull();
+    }
+
+    @Test
+    void evictsOnlyAfterTheTransactionCommits() {
+        cache.put("a1", ALICE, inOneHour(), cache.stamp());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictToken("a1");
+
+        assertThat(cache.get("a1")).as("before commit").isEqualTo(ALICE);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get("a1")).as("after commit").isNull();
+    }
+
+    @Test
+    void neverCachesPastTheTokenExpiry() {
+        cache.put("a1", ALICE, Instant.now().minusSeconds(1), cache.stamp());
+
+        assertThat(cache.get("a1")).isNull();
+    }
+
+    @Test
+    void shrinksPastMaxEntries() {
+        props.getAuth().getCache().setMaxEntries(100);
+        for (int i = 0; i < 150; i++) {
+            cache.put("t" + i, ALICE, inOneHour(), cache.stamp());
+        }
+
+        assertThat(cache.get("t149")).isEqualTo(ALICE);
+        long cached = IntStream.range(0, 150).filter(i -> cache.get("t" + i) != null).count();
+        assertThat(cached).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void aLookupRacingWithAnEvictionNeverSurvivesIt() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                String token = "a" + i;
+                long stamp = cache.stamp();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> evict = executor.submit(() -> {
+                    start.await();
+                    cache.evictUser(ALICE.id());
+                    return null;
+                });
+                Future<?> put = executor.submit(() -> {
+                    start.await();
+                    cache.put(token, ALICE, inOneHour(), stamp);
+                    return null;
+                });
+                start.countDown();
+                evict.get(5, TimeUnit.SECONDS);
+                put.get(5, TimeUnit.SECONDS);
+
+                assertThat(cache.get(token)).as("token %s", token).isNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plusSeconds(3600);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.social.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("t:" + i));
+
+        assertThat(IntStream.range(0, 10_000).filter(i -> !filter.mightContain("t:" + i)).count()).isZero();
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateNearTheTargetAtCapacity() {
+        for (double target : new double[]{0.01, 0.001}) {
+            BloomFilter filter = BloomFilter.create(20_000, target);
+            IntStream.range(0, 20_000).forEach(i -> filter.add("u:" + i));
+
+            int probes = 200_000;
+            long falsePositives = IntStream.range(0, probes).filter(i -> filter.mightContain("t:" + i)).count();
+
+            assertThat((double) falsePositives / probes).as("false-positive rate for %s", target).isLessThan(target * 1.5);
+        }
+    }
+
+    @Test
+    void isSizedFromExpectedEntriesAndRate() {
+        // m = -n ln p / (ln 2)^2: about 9.6 bits per entry at 1 %
+        assertThat(BloomFilter.create(100_000, 0.01).sizeBytes()).isBetween(119_000L, 121_000L);
+        assertThat(BloomFilter.create(0, 0.01).sizeBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentAddsAreAllVisible() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> filter.add("t:" + i));
+
+        assertThat(IntStream.range(0, 100_000).filter(i -> !filter.mightContain("t:" + i)).count()).isZero();
+    }
+}
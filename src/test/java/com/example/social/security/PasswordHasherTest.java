@@ -0,0 +1,102 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import com.example.social.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    @Test
+    void parsesTheCostOfAModularCryptHash() {
+        assertThat(PasswordHasher.cost("$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW")).isEqualTo(12);
+        assertThat(PasswordHasher.cost("$2y$04$abcdefghijklmnopqrstuv")).isEqualTo(4);
+        assertThat(PasswordHasher.cost(null)).isEqualTo(-1);
+        assertThat(PasswordHasher.cost("plain")).isEqualTo(-1);
+        assertThat(PasswordHasher.cost("$2a$xx$abcdefghijklmnopqrstuv")).isEqualTo(-1);
+    }
+
+    @Test
+    void hashesAtTheConfiguredCostAndVerifies() {
+        PasswordHasher hasher = hasher(5, 1, 4, 5000);
+        try {
+            String hash = hasher.hash("secret");
+
+            assertThat(PasswordHasher.cost(hash)).isEqualTo(5);
+            assertThat(hasher.verify("secret", hash)).isEqualTo(new PasswordHasher.Verification(true, false));
+            assertThat(hasher.verify("wrong", hash)).isEqualTo(new PasswordHasher.Verification(false, false));
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void flagsCorrectPasswordsHashedAtAnotherCostForRehash() {
+        PasswordHasher old = hasher(4, 1, 4, 5000);
+        PasswordHasher current = hasher(5, 1, 4, 5000);
+        try {
+            String hash = old.hashNow("secret");
+
+            assertThat(current.verify("secret", hash)).isEqualTo(new PasswordHasher.Verification(true, true));
+            assertThat(current.verify("wrong", hash).needsRehash()).as("never for a wrong password").isFalse();
+        } finally {
+            old.shutdown();
+            current.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableOnceTheQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = hasher(14, 1, 1, 60_000, registry);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            // one running, one queued
+            callers.submit(() -> hasher.hash("first"));
+            callers.submit(() -> hasher.hash("second"));
+            while (registry.get("auth.password.queue.depth").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            assertThatThrownBy(() -> hasher.hash("third")).isInstanceOf(ServiceUnavailableException.class);
+            assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            hasher.shutdown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableOnTimeout() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = hasher(14, 1, 4, 10, registry);
+        try {
+            assertThatThrownBy(() -> hasher.hash("slow"))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("timed out");
+            assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    private static PasswordHasher hasher(int cost, int threads, int queueCapacity, long timeoutMillis) {
+        return hasher(cost, threads, queueCapacity, timeoutMillis, new SimpleMeterRegistry());
+    }
+
+    private static PasswordHasher hasher(int cost, int threads, int queueCapacity, long timeoutMillis, SimpleMeterRegistry registry) {
+        AppProperties props = new AppProperties();
+        AppProperties.Auth.Password password = props.getAuth().getPassword();
+        password.setCost(cost);
+        password.setThreads(threads);
+        password.setQueueCapacity(queueCapacity);
+        password.setTimeoutMillis(timeoutMillis);
+        return new PasswordHasher(props, registry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SignedTokenCodecTest {
+    private static final SignedTokenCodec.SignedToken TOKEN =
+            new SignedTokenCodec.SignedToken("id-1", 42L, "alice", Role.ADMIN, 1_700_000_000_000L, 1_700_003_600_000L);
+
+    @Test
+    void roundTripsAToken() {
+        SignedTokenCodec codec = codec(key(1));
+
+        String raw = codec.encode(TOKEN);
+
+        assertThat(raw).startsWith(SignedTokenCodec.PREFIX);
+        assertThat(codec.decode(raw)).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void rejectsATamperedPayloadOrSignature() {
+        SignedTokenCodec codec = codec(key(1));
+        String raw = codec.encode(TOKEN);
+        int dot = raw.lastIndexOf('.');
+        String forged = codec.encode(new SignedTokenCodec.SignedToken("id-1", 42L, "alice", Role.ADMIN,
+                TOKEN.issuedAtMillis(), TOKEN.expiresAtMillis() + 86_400_000L));
+
+        assertThat(codec.decode(forged.substring(0, forged.lastIndexOf('.')) + raw.substring(dot)))
+                .as("extended expiry with the original signature").isNull();
+        assertThat(codec.decode(raw.substring(0, dot + 1) + flipFirst(raw.substring(dot + 1)))).as("flipped signature").isNull();
+        assertThat(codec.decode(SignedTokenCodec.PREFIX + flipFirst(raw.substring(SignedTokenCodec.PREFIX.length())))).as("flipped payload").isNull();
+        assertThat(codec.decode(raw.substring(0, dot))).as("no signature").isNull();
+        assertThat(codec.decode(raw.substring(0, dot) + ".!!")).as("malformed signature").isNull();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        String raw = codec(key(2)).encode(TOKEN);
+
+        assertThat(codec(key(1)).decode(raw)).isNull();
+    }
+
+    @Test
+    void leavesTheExpiryCheckToTheCaller() {
+        SignedTokenCodec codec = codec(key(1));
+        SignedTokenCodec.SignedToken expired = new SignedTokenCodec.SignedToken("id-2", 42L, "alice", Role.USER, 1000L, 2000L);
+
+        SignedTokenCodec.SignedToken decoded = codec.decode(codec.encode(expired));
+
+        assertThat(decoded).isEqualTo(expired);
+        assertThat(decoded.expiresAtMillis()).isLessThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void isDisabledWithoutAKeyUnlessSignedModeIsSelected() {
+        SignedTokenCodec disabled = codec("");
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.decode(codec(key(1)).encode(TOKEN))).isNull();
+        assertThatThrownBy(() -> disabled.encode(TOKEN)).isInstanceOf(IllegalStateException.class);
+
+        AppProperties props = new AppProperties();
+        props.getAuth().getToken().setMode(AppProperties.Auth.Token.Mode.SIGNED);
+        assertThatThrownBy(() -> new SignedTokenCodec(props)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsShortKeys() {
+        assertThatThrownBy(() -> codec(Base64.getEncoder().encodeToString(new byte[16])))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("32 bytes");
+    }
+
+    private static SignedTokenCodec codec(String key) {
+        AppProperties props = new AppProperties();
+        props.getAuth().getToken().setSigningKey(key);
+        return new SignedTokenCodec(props);
+    }
+
+    private static String key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    /** Changes the first character, which always carries six data bits, unlike the last one. */
+    private static String flipFirst(String base64) {
+        return (base64.charAt(0) == 'A' ? 'B' : 'A') + base64.substring(1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.social.security;
+
+import com.example.social.config.AppProperties;
+import com.example.social.domain.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenRevocationsTest {
+    private RevocationStore store;
+    private TokenRevocations revocations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AppProperties props = new AppProperties();
+        props.getAuth().getToken().setSigningKey(Base64.getEncoder().encodeToString(new byte[32]));
+        props.getAuth().getToken().getRevocation().setStore(AppProperties.Auth.Token.Revocation.Store.MEMORY);
+        store = new InMemoryRevocationStore();
+        revocations = new TokenRevocations(store, new SignedTokenCodec(props), props, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        revocations.load();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokedTokensAreRejectedAndOthersAccepted() {
+        SignedTokenCodec.SignedToken revoked = token("t1", 1L, System.currentTimeMillis());
+        SignedTokenCodec.SignedToken other = token("t2", 1L, System.currentTimeMillis());
+
+        revocations.revokeToken(revoked);
+
+        assertThat(revocations.isRevoked(revoked)).isTrue();
+        assertThat(revocations.isRevoked(other)).isFalse();
+    }
+
+    @Test
+    void revokingAUserRejectsOnlyTokensIssuedBeforehand() {
+        SignedTokenCodec.SignedToken before = token("t1", 1L, System.currentTimeMillis() - 1000);
+        SignedTokenCodec.SignedToken otherUser = token("t2", 2L, System.currentTimeMillis() - 1000);
+
+        revocations.revokeUser(1L);
+
+        assertThat(revocations.isRevoked(before)).isTrue();
+        assertThat(revocations.isRevoked(otherUser)).isFalse();
+        assertThat(revocations.isRevoked(token("t3", 1L, System.currentTimeMillis() + 1000))).isFalse();
+    }
+
+    @Test
+    void revokesAUserOnlyOnceTheTransactionCommits() {
+        SignedTokenCodec.SignedToken issued = token("t1", 1L, System.currentTimeMillis() - 1000);
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocations.revokeUser(1L);
+
+        assertThat(store.get("u:1")).as("stored before commit").isNull();
+        assertThat(revocations.isRevoked(issued)).as("before commit").isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocations.isRevoked(issued)).as("after commit").isTrue();
+    }
+
+    @Test
+    void aRolledBackTransactionRevokesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocations.revokeUser(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(store.get("u:1")).isNull();
+        assertThat(revocations.isRevoked(token("t1", 1L, System.currentTimeMillis() - 1000))).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aRevocationTheStoreRejectsIsEnforcedLocallyAndStoredOnTheNextRebuild() {
+        AtomicBoolean storeDown = new AtomicBoolean(true);
+        store = new InMemoryRevocationStore() {
+            @Override
+            public void put(String key, long value, long keepUntilMillis) {
+                if (storeDown.get()) {
+                    throw new IllegalStateException("Redis unavailable");
+                }
+                super.put(key, value, keepUntilMillis);
+            }
+        };
+        AppProperties props = new AppProperties();
+        props.getAuth().getToken().setSigningKey(Base64.getEncoder().encodeToString(new byte[32]));
+        props.getAuth().getToken().getRevocation().setStore(AppProperties.Auth.Token.Revocation.Store.MEMORY);
+        revocations = new TokenRevocations(store, new SignedTokenCodec(props), props, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        revocations.load();
+        SignedTokenCodec.SignedToken issued = token("t1", 1L, System.currentTimeMillis() - 1000);
+
+        revocations.revokeUser(1L);
+        revocations.rebuild();
+
+        assertThat(store.get("u:1")).as("stored while down").isNull();
+        assertThat(revocations.isRevoked(issued)).as("enforced while down").isTrue();
+
+        storeDown.set(false);
+        revocations.rebuild();
+
+        assertThat(store.get("u:1")).as("stored after recovery").isNotNull();
+        assertThat(revocations.isRevoked(issued)).isTrue();
+    }
+
+    private static SignedTokenCodec.SignedToken token(String id, long userId, long issuedAt) {
+        return new SignedTokenCodec.SignedToken(id, userId, "user" + userId, Role.USER, issuedAt, issuedAt + 3_600_000);
+    }
+}